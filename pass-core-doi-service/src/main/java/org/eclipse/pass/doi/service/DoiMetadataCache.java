@@ -0,0 +1,336 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the metadata returned by external DOI services. Entries are kept in memory and in a database table
+ * shared by all nodes, so that a DOI looked up on one node is not fetched again by another.
+ * <p>
+ * Metadata is fresh for the ttl configured for the external service and a not found answer for the not found ttl.
+ * Other errors are not cached. For a time after an entry is no longer fresh, it is returned while it is fetched
+ * again in the background so that a slow external service is not noticed. Lookups answered from the cache
+ * complete immediately, others complete when the external service answers.
+ * <p>
+ * The outcome of each lookup is counted in pass.doi.cache.requests tagged with the result: hit from memory, shared
+ * from the database, stale, or miss. The ratio of lookups answered without waiting on the external service is the
+ * pass.doi.cache.hit.ratio gauge. Calls to an external service are timed by pass.doi.upstream.
+ */
+@Component
+public class DoiMetadataCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DoiMetadataCache.class);
+
+    static final String TABLE = "pass_doi_metadata";
+    static final String REQUESTS_METRIC = "pass.doi.cache.requests";
+    static final String HIT_RATIO_METRIC = "pass.doi.cache.hit.ratio";
+    static final String UPSTREAM_METRIC = "pass.doi.upstream";
+
+    private final DoiMetadataCacheConfiguration config;
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Cache<Key, Entry> memory;
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, HitRatio> ratios = new ConcurrentHashMap<>();
+
+    /**
+     * @param config configuration of the cache
+     * @param jdbc used to access the shared table if available
+     * @param registry where metrics are registered
+     */
+    @Autowired
+    public DoiMetadataCache(DoiMetadataCacheConfiguration config, ObjectProvider<JdbcTemplate> jdbc,
+                            MeterRegistry registry) {
+        this(config, jdbc.getIfAvailable(), registry, Clock.systemUTC());
+    }
+
+    DoiMetadataCache(DoiMetadataCacheConfiguration config, JdbcTemplate jdbc, MeterRegistry registry,
+                     Clock clock) {
+        this.config = config;
+        this.jdbc = jdbc;
+        this.registry = registry;
+        this.clock = clock;
+        this.memory = Caffeine.newBuilder().maximumSize(config.getMaxSize()).expireAfterWrite(max_age()).build();
+    }
+
+    private record Key(String service, String doi) {
+    }
+
+    private record Entry(JsonObject value, Instant fetched) {
+    }
+
+    // Lookups of an external service and those answered without waiting on it
+    private static class HitRatio {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+
+        double ratio() {
+            long n = total.get();
+
+            return n == 0 ? Double.NaN : (double) hits.get() / n;
+        }
+    }
+
+    /**
+     * Return the cached metadata of a DOI or fetch it. The metadata follows the conventions of
+     * {@link ExternalDoiServiceConnector#retrieveMetadata(String, ExternalDoiService)}.
+     *
+     * @param service the external service
+     * @param doi the DOI
+     * @param fetch starts fetching the metadata from the external service
+     * @return the metadata, an error object, or null
+     */
+    public CompletableFuture<JsonObject> get(ExternalDoiService service, String doi,
+                                             Supplier<CompletableFuture<JsonObject>> fetch) {
+        if (!config.isEnabled()) {
+            return timed_fetch(service, fetch);
+        }
+
+        Key key = new Key(service.name(), doi);
+        Instant now = clock.instant();
+        Entry entry = memory.getIfPresent(key);
+        String result = "hit";
+
+        if (entry == null || !is_fresh(service, entry, now)) {
+            Entry shared = load(key);
+
+            if (shared != null && (entry == null || shared.fetched().isAfter(entry.fetched()))) {
+                memory.put(key, shared);
+                entry = shared;
+                result = "shared";
+            }
+        }
+
+        if (entry != null && is_fresh(service, entry, now)) {
+            record(service, result, true);
+            return CompletableFuture.completedFuture(entry.value());
+        }
+
+        if (entry != null && now.isBefore(expires(service, entry).plus(config.getStaleWhileRevalidate()))) {
+            record(service, "stale", true);
+            refresh(key, service, fetch);
+            return CompletableFuture.completedFuture(entry.value());
+        }
+
+        record(service, "miss", false);
+
+        return fetch_and_store(key, service, fetch);
+    }
+
+    /**
+     * Remove rows of the shared table which are too old to be returned.
+     */
+    @Scheduled(fixedDelayString = "${pass.doi.cache.purge-interval}")
+    public void purge() {
+        if (jdbc == null) {
+            return;
+        }
+
+        try {
+            int purged = jdbc.update("DELETE FROM " + TABLE + " WHERE fetched < ?",
+                Timestamp.from(clock.instant().minus(max_age())));
+
+            LOG.debug("Purged {} cached DOI metadata", purged);
+        } catch (DataAccessException e) {
+            LOG.warn("Failed to purge cached DOI metadata", e);
+        }
+    }
+
+    private static boolean is_not_found(JsonObject value) {
+        return value.containsKey("error")
+            && value.getInt(ExternalDoiServiceConnector.HTTP_STATUS_CODE, 0) == 404;
+    }
+
+    private Duration ttl(ExternalDoiService service, JsonObject value) {
+        if (is_not_found(value)) {
+            return config.getNotFoundTtl();
+        }
+
+        return config.getTtl().getOrDefault(service.name().toLowerCase(Locale.ROOT), config.getDefaultTtl());
+    }
+
+    private Instant expires(ExternalDoiService service, Entry entry) {
+        return entry.fetched().plus(ttl(service, entry.value()));
+    }
+
+    private boolean is_fresh(ExternalDoiService service, Entry entry, Instant now) {
+        return now.isBefore(expires(service, entry));
+    }
+
+    // Longest time an entry may be returned
+    private Duration max_age() {
+        Duration result = config.getDefaultTtl();
+
+        for (Duration ttl : config.getTtl().values()) {
+            result = ttl.compareTo(result) > 0 ? ttl : result;
+        }
+
+        result = config.getNotFoundTtl().compareTo(result) > 0 ? config.getNotFoundTtl() : result;
+
+        return result.plus(config.getStaleWhileRevalidate());
+    }
+
+    private void record(ExternalDoiService service, String result, boolean hit) {
+        registry.counter(REQUESTS_METRIC, "service", service.name(), "result", result).increment();
+
+        HitRatio ratio = ratios.computeIfAbsent(service.name(), name -> {
+            HitRatio r = new HitRatio();
+            Gauge.builder(HIT_RATIO_METRIC, r, HitRatio::ratio).tag("service", name).register(registry);
+            return r;
+        });
+
+        ratio.total.incrementAndGet();
+
+        if (hit) {
+            ratio.hits.incrementAndGet();
+        }
+    }
+
+    private CompletableFuture<JsonObject> timed_fetch(ExternalDoiService service,
+                                                      Supplier<CompletableFuture<JsonObject>> fetch) {
+        Timer.Sample sample = Timer.start(registry);
+        CompletableFuture<JsonObject> result;
+
+        try {
+            result = fetch.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        return result.whenComplete((value, e) -> {
+            String outcome = value == null ? "error" : is_not_found(value) ? "not_found"
+                : value.containsKey("error") ? "error" : "success";
+
+            sample.stop(registry.timer(UPSTREAM_METRIC, "service", service.name(), "outcome", outcome));
+        });
+    }
+
+    private CompletableFuture<JsonObject> fetch_and_store(Key key, ExternalDoiService service,
+                                                          Supplier<CompletableFuture<JsonObject>> fetch) {
+        return timed_fetch(service, fetch).thenApply(value -> {
+            // Only metadata and not found answers are cached
+            if (value != null && (!value.containsKey("error") || is_not_found(value))) {
+                Entry entry = new Entry(value, clock.instant());
+
+                memory.put(key, entry);
+                store(key, entry);
+            }
+
+            return value;
+        });
+    }
+
+    // Fetch the metadata in the background unless that is already happening
+    private void refresh(Key key, ExternalDoiService service, Supplier<CompletableFuture<JsonObject>> fetch) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        fetch_and_store(key, service, fetch).whenComplete((value, e) -> {
+            if (e != null) {
+                LOG.warn("Failed to refresh metadata of {} from {}", key.doi(), key.service(), e);
+            }
+
+            refreshing.remove(key);
+        });
+    }
+
+    private Entry load(Key key) {
+        if (jdbc == null) {
+            return null;
+        }
+
+        try {
+            List<Entry> entries = jdbc.query("SELECT body, fetched FROM " + TABLE + " WHERE service = ? AND doi = ?",
+                (rs, i) -> new Entry(parse(rs.getString("body")), rs.getTimestamp("fetched").toInstant()),
+                key.service(), key.doi());
+
+            return entries.isEmpty() || entries.get(0).value() == null ? null : entries.get(0);
+        } catch (DataAccessException e) {
+            LOG.warn("Failed to load cached metadata of {} from {}", key.doi(), key.service(), e);
+            return null;
+        }
+    }
+
+    private static JsonObject parse(String body) {
+        try (JsonReader reader = Json.createReader(new StringReader(body))) {
+            return reader.readObject();
+        } catch (JsonException e) {
+            LOG.warn("Ignoring unparsable cached metadata", e);
+            return null;
+        }
+    }
+
+    private void store(Key key, Entry entry) {
+        if (jdbc == null) {
+            return;
+        }
+
+        String body = entry.value().toString();
+        Timestamp fetched = Timestamp.from(entry.fetched());
+
+        try {
+            if (update(key, body, fetched) == 0) {
+                try {
+                    jdbc.update("INSERT INTO " + TABLE + " (service, doi, body, fetched) VALUES (?, ?, ?, ?)",
+                        key.service(), key.doi(), body, fetched);
+                } catch (DuplicateKeyException e) {
+                    // Another node inserted the row first
+                    update(key, body, fetched);
+                }
+            }
+        } catch (DataAccessException e) {
+            LOG.warn("Failed to store cached metadata of {} from {}", key.doi(), key.service(), e);
+        }
+    }
+
+    private int update(Key key, String body, Timestamp fetched) {
+        return jdbc.update("UPDATE " + TABLE + " SET body = ?, fetched = ? WHERE service = ? AND doi = ?",
+            body, fetched, key.service(), key.doi());
+    }
+}
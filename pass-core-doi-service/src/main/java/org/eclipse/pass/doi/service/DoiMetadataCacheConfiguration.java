@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for a DoiMetadataCache
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pass.doi.cache")
+public class DoiMetadataCacheConfiguration {
+    // Whether metadata is cached
+    private boolean enabled = true;
+
+    // Maximum number of entries cached in memory
+    private long max_size = 10000;
+
+    // Time metadata is fresh keyed by lower case name of the external service
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    // Time metadata is fresh for an external service without a ttl
+    private Duration default_ttl = Duration.ofDays(1);
+
+    // Time a not found answer is fresh
+    private Duration not_found_ttl = Duration.ofHours(1);
+
+    // Time after metadata is no longer fresh that it is still returned while being refreshed
+    private Duration stale_while_revalidate = Duration.ofDays(1);
+
+    /**
+     * @return Whether metadata is cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled Whether metadata is cached
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return Maximum number of entries cached in memory
+     */
+    public long getMaxSize() {
+        return max_size;
+    }
+
+    /**
+     * @param max_size Maximum number of entries cached in memory
+     */
+    public void setMaxSize(long max_size) {
+        this.max_size = max_size;
+    }
+
+    /**
+     * @return Time metadata is fresh keyed by lower case name of the external service
+     */
+    public Map<String, Duration> getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @param ttl Time metadata is fresh keyed by lower case name of the external service
+     */
+    public void setTtl(Map<String, Duration> ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return Time metadata is fresh for an external service without a ttl
+     */
+    public Duration getDefaultTtl() {
+        return default_ttl;
+    }
+
+    /**
+     * @param default_ttl Time metadata is fresh for an external service without a ttl
+     */
+    public void setDefaultTtl(Duration default_ttl) {
+        this.default_ttl = default_ttl;
+    }
+
+    /**
+     * @return Time a not found answer is fresh
+     */
+    public Duration getNotFoundTtl() {
+        return not_found_ttl;
+    }
+
+    /**
+     * @param not_found_ttl Time a not found answer is fresh
+     */
+    public void setNotFoundTtl(Duration not_found_ttl) {
+        this.not_found_ttl = not_found_ttl;
+    }
+
+    /**
+     * @return Time after metadata is no longer fresh that it is still returned while being refreshed
+     */
+    public Duration getStaleWhileRevalidate() {
+        return stale_while_revalidate;
+    }
+
+    /**
+     * @param stale_while_revalidate Time after metadata is no longer fresh that it is still returned while being
+     *     refreshed
+     */
+    public void setStaleWhileRevalidate(Duration stale_while_revalidate) {
+        this.stale_while_revalidate = stale_while_revalidate;
+    }
+}
@@ -18,12 +18,13 @@ package org.eclipse.pass.doi.service;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,12 +32,12 @@ import com.yahoo.elide.RefreshableElide;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
 import org.eclipse.pass.object.PassClient;
-import org.eclipse.pass.object.PassClientResult;
 import org.eclipse.pass.object.PassClientSelector;
 import org.eclipse.pass.object.RSQL;
 import org.eclipse.pass.object.model.Journal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -54,33 +55,124 @@ public class ElideConnector {
      */
     protected RefreshableElide refreshableElide;
 
+    private final JournalIndex journalIndex;
+    private final SingleFlight<String, String> resolutions = new SingleFlight<>();
+
     /**
      * Constructor for ElideConnector
      *
      * @param refreshableElide the Elide instance to use for all Elide operations
      */
     protected ElideConnector(RefreshableElide refreshableElide) {
+        this(refreshableElide, null);
+    }
+
+    /**
+     * Constructor for ElideConnector
+     *
+     * @param refreshableElide the Elide instance to use for all Elide operations
+     * @param journalIndex used to match journals or null to match them with Elide
+     */
+    @Autowired
+    protected ElideConnector(RefreshableElide refreshableElide, JournalIndex journalIndex) {
         this.refreshableElide = refreshableElide;
+        this.journalIndex = journalIndex;
     }
 
     /**
      * This is the only method interfacing with the repo that the Servlet calls -
      * it orchestrates the process of building a Journal object from the supplied JSON object,
      * seeing if the Journal is present in PASS, creating or updating that Journal if needed,
-     * and finally returning the PASS id for the Journal
+     * and finally returning the PASS id for the Journal. Concurrent calls for the same journal share one
+     * resolution.
      *
      * @param xrefJsonObject the supplied crossref JSON object
      * @return the id of the corresponding Journal object in PASS
      */
     protected String resolveJournal(JsonObject xrefJsonObject) {
+        try {
+            // we have something JSONy, let's build a journal object from it
+            Journal journal = buildPassJournal(xrefJsonObject);
 
-        String journalId = null;
+            // concurrent resolutions of the same journal would race to create it
+            return resolutions.execute(journal_key(journal), () -> resolve_journal(journal));
+        } catch (Exception e) {
+            LOG.error("Error resolving journal", e);
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the journals of many Crossref records as {@link #resolveJournal(JsonObject)} does. Records of the
+     * same journal are resolved once and all resolutions share one PASS client.
+     *
+     * @param xrefJsonObjects the supplied crossref JSON objects
+     * @return the ids of the corresponding Journal objects in PASS in the same order, null where a journal
+     * could not be resolved
+     */
+    protected List<String> resolveJournals(List<JsonObject> xrefJsonObjects) {
+        List<String> result = new ArrayList<>(xrefJsonObjects.size());
+        Map<String, String> resolved = new HashMap<>();
 
         try (PassClient passClient = PassClient.newInstance(refreshableElide)) {
-            // we have something JSONy, let's build a journal object from it
-            Journal journal = buildPassJournal(xrefJsonObject);
+            for (JsonObject xrefJsonObject : xrefJsonObjects) {
+                String journalId = null;
+
+                try {
+                    Journal journal = buildPassJournal(xrefJsonObject);
+                    String key = journal_key(journal);
+
+                    if (resolved.containsKey(key)) {
+                        journalId = resolved.get(key);
+                    } else {
+                        journalId = resolutions.execute(key, () -> resolve_journal(journal, passClient));
+                        resolved.put(key, journalId);
+                    }
+                } catch (Exception e) {
+                    LOG.error("Error resolving journal", e);
+                }
+
+                result.add(journalId);
+            }
+        } catch (Exception e) {
+            LOG.error("Error resolving journals", e);
+
+            while (result.size() < xrefJsonObjects.size()) {
+                result.add(null);
+            }
+        }
+
+        return result;
+    }
+
+    // A journal is identified by its name and issns
+    private static String journal_key(Journal journal) {
+        return journal.getJournalName() + " " + journal.getIssns().stream().sorted().collect(Collectors.joining(","));
+    }
+
+    private String resolve_journal(Journal journal) {
+        try (PassClient passClient = PassClient.newInstance(refreshableElide)) {
+            return resolve_journal(journal, passClient);
+        } catch (Exception e) {
+            LOG.error("Error resolving journal", e);
+            return null;
+        }
+    }
 
-            // and compare it with what we already have in PASS, updating PASS if necessary
+    private String resolve_journal(Journal journal, PassClient passClient) {
+        String journalId = null;
+
+        // Most journals are already in PASS and up to date
+        if (journalIndex != null) {
+            Long known = journalIndex.findUnchanged(journal.getJournalName(), journal.getIssns());
+
+            if (known != null) {
+                return known.toString();
+            }
+        }
+
+        try {
+            // compare it with what we already have in PASS, updating PASS if necessary
             Journal updatedJournal = updateJournalInPass(journal, passClient);
 
             //we return the journal id if we have one
@@ -228,6 +320,10 @@ public class ElideConnector {
     /**
      * Find a journal in our repository. We take the best match we can find. finder algorithm here should harmonize
      * with the approach in the {@code BatchJournalFinder} in the journal loader code
+     * <p>
+     * Journals with the name and journals with any of the issns are found with a query each, since the database
+     * cannot use an index for a disjunction of both. The best match has the most of them and of those the lowest
+     * id.
      *
      * @param name  the name of the journal to be found
      * @param issns the set of issns to find. we assume that the issns stored in the repo are of the format type:value
@@ -238,45 +334,56 @@ public class ElideConnector {
      *
      */
     protected Journal find(String name, List<String> issns, PassClient passClient) throws IOException {
+        if (journalIndex != null) {
+            for (JournalIndex.Match match : journalIndex.findMatches(name, issns)) {
+                Journal journal = passClient.getObject(Journal.class, match.journalId());
+
+                // The journal was deleted or merged since it was matched, try the next best
+                if (journal != null) {
+                    return journal;
+                }
+
+                journalIndex.remove(match.journalId());
+            }
+
+            return null;
+        }
 
-        //keep track of hits for searches
-        List<Journal> foundList = new ArrayList<>();
+        //look for journals with this name or any of these issns, ordered by id
+        Map<Long, Journal> candidates = new TreeMap<>();
 
-        //look for journals with this name
-        String filter = RSQL.equals("journalName", name);
-        PassClientResult<Journal> result = passClient.
-            selectObjects(new PassClientSelector<>(Journal.class, 0, 100, filter, null));
-        foundList.addAll(result.getObjects());
+        if (name != null) {
+            selectJournals(RSQL.equals("journalName", name), passClient)
+                .forEach(journal -> candidates.putIfAbsent(journal.getId(), journal));
+        }
 
-        //look for journals with any of these issns
         if (!issns.isEmpty()) {
-            for (String issn : issns) {
-                filter = RSQL.hasMember("issns", issn);
-                result = passClient.
-                    selectObjects(new PassClientSelector<>(Journal.class, 0, 100, filter, null));
-                result.getObjects().forEach(j -> {
-                    foundList.add(j);
-                });
-            }
+            selectJournals(RSQL.in("issns", issns.toArray(String[]::new)), passClient)
+                .forEach(journal -> candidates.putIfAbsent(journal.getId(), journal));
         }
 
-        //count the number of hits for each Journal
-        if (foundList.size() == 0) {
-            return null;
-        } else {
-            Map<Journal, Long> scoreMap = foundList.stream()
-                                                   .collect(Collectors.groupingBy(e -> e, Collectors.counting()));
+        //count the number of hits for each Journal, keeping the first of the best
+        Journal best = null;
+        long highScore = 0;
 
-            // we have matches, pick the best one
-            Long highScore = Collections.max(scoreMap.values());
+        for (Journal journal : candidates.values()) {
+            long score = (name != null && name.equals(journal.getJournalName()) ? 1 : 0)
+                + issns.stream().distinct().filter(journal.getIssns()::contains).count();
 
-            for (Journal journal : scoreMap.keySet()) {
-                if (scoreMap.get(journal).equals(highScore)) {
-                    return journal;
-                }
+            if (score > highScore) {
+                best = journal;
+                highScore = score;
             }
         }
-        return null; //never reached
+
+        return best;
+    }
+
+    private List<Journal> selectJournals(String filter, PassClient passClient) throws IOException {
+        PassClientSelector<Journal> selector = new PassClientSelector<>(Journal.class, 0, 100, filter, "id");
+        selector.setTotals(false);
+
+        return passClient.selectObjects(selector).getObjects();
     }
 
     /**
@@ -20,13 +20,23 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
 import jakarta.json.stream.JsonParsingException;
 import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -34,22 +44,73 @@ import okhttp3.Request;
 import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * A class which manages the retrieval of JSON from external DOI services (Unpaywall, Crossref)
+ * <p>
+ * Retrieved metadata is cached by a {@link DoiMetadataCache} if one is given. Concurrent retrievals of the same DOI
+ * from the same service share one lookup. DOIs are case-insensitive, so they are compared in lower case.
+ * <p>
+ * Requests to external services are asynchronous, so no thread waits on them. The number of requests in progress
+ * is capped by pass.doi.upstream.max-requests and per external service by
+ * pass.doi.upstream.max-requests-per-host. Further requests are queued until one finishes.
+ * <p>
+ * A request counts against those caps until its response has been read. The returned futures are completed by a
+ * pool of pass.doi.upstream.workers threads rather than the HTTP client, so that stages depending on them, which
+ * may store the metadata or resolve a journal in the database, do not hold up other requests.
  *
  * @author jrm
  */
 @Component
-public class ExternalDoiServiceConnector {
+public class ExternalDoiServiceConnector implements DisposableBean {
     private static final Logger LOG = LoggerFactory.getLogger(ExternalDoiServiceConnector.class);
     static final String HTTP_STATUS_CODE = "HTTP_STATUS_CODE";
+    static final int DEFAULT_MAX_REQUESTS = 64;
+    static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+    static final int DEFAULT_WORKERS = 16;
+    static final String WORKER_THREAD_PREFIX = "pass-doi-worker-";
 
     private final OkHttpClient client;
+    private final DoiMetadataCache cache;
+    private final ThreadPoolExecutor workers;
+    private final SingleFlight<String, JsonObject> lookups = new SingleFlight<>();
 
     ExternalDoiServiceConnector() {
+        this(null, DEFAULT_MAX_REQUESTS, DEFAULT_MAX_REQUESTS_PER_HOST, DEFAULT_WORKERS);
+    }
+
+    /**
+     * @param cache cache of retrieved metadata or null
+     * @param maxRequests maximum number of requests to external services in progress
+     * @param maxRequestsPerHost maximum number of requests to one external service in progress
+     * @param workers number of threads completing retrievals
+     */
+    @Autowired
+    public ExternalDoiServiceConnector(DoiMetadataCache cache,
+                                       @Value("${pass.doi.upstream.max-requests}") int maxRequests,
+                                       @Value("${pass.doi.upstream.max-requests-per-host}") int maxRequestsPerHost,
+                                       @Value("${pass.doi.upstream.workers}") int workers) {
+        this.cache = cache;
+
+        AtomicInteger worker_count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            r -> {
+                Thread thread = new Thread(r, WORKER_THREAD_PREFIX + worker_count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.workers.allowCoreThreadTimeOut(true);
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
         OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        builder.dispatcher(dispatcher);
         builder.connectTimeout(30, SECONDS);
         builder.readTimeout(30, SECONDS);
         builder.writeTimeout(30, SECONDS);
@@ -66,6 +127,33 @@ public class ExternalDoiServiceConnector {
      *      the external service returns an error status code
      */
     JsonObject retrieveMetadata(String doi, ExternalDoiService service) {
+        try {
+            return retrieveMetadataAsync(doi, service).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    /**
+     * Consult external service to get a json object for a supplied doi without waiting for the answer.
+     *
+     * @param doi - the supplied doi string, prefix trimmed if necessary
+     * @param service - the external service
+     * @return future completed with the result described by {@link #retrieveMetadata(String, ExternalDoiService)}
+     */
+    CompletableFuture<JsonObject> retrieveMetadataAsync(String doi, ExternalDoiService service) {
+        String key = doi.toLowerCase(Locale.ROOT);
+
+        return lookups.executeAsync(service.name() + " " + key, () -> {
+            if (cache == null) {
+                return fetch_metadata(doi, service);
+            }
+
+            return cache.get(service, key, () -> fetch_metadata(doi, service));
+        });
+    }
+
+    private CompletableFuture<JsonObject> fetch_metadata(String doi, ExternalDoiService service) {
         HttpUrl.Builder urlBuilder = Objects.requireNonNull(HttpUrl.parse(service.baseUrl() + doi)).newBuilder();
 
         if (service.parameterMap() != null) {
@@ -81,26 +169,70 @@ public class ExternalDoiServiceConnector {
         }
 
         Request okHttpRequest =  requestBuilder.build();
-        Call call = client.newCall(okHttpRequest);
-
-        try (Response okHttpResponse = call.execute()) {
-            if (okHttpResponse.isSuccessful()) {
-                try (Reader reader = okHttpResponse.body().charStream();
-                        JsonReader jsonReader = Json.createReader(reader)) {
-                    return jsonReader.readObject();
-                } catch (JsonParsingException e) {
-                    LOG.error("Error parsing JSON of external service: " + okHttpRequest.url(), e);
-                    return null;
+        CompletableFuture<JsonObject> result = new CompletableFuture<>();
+
+        client.newCall(okHttpRequest).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                LOG.error("Error accessing external service: " + okHttpRequest.url(), e);
+                complete(result, null, null);
+            }
+
+            @Override
+            public void onResponse(Call call, Response okHttpResponse) {
+                JsonObject value;
+
+                try (okHttpResponse) {
+                    value = read_response(okHttpRequest, okHttpResponse);
+                } catch (IOException e) {
+                    onFailure(call, e);
+                    return;
+                } catch (RuntimeException e) {
+                    complete(result, null, e);
+                    return;
                 }
+
+                complete(result, value, null);
             }
+        });
+
+        return result;
+    }
 
-            // Set response as the error field and save the status code.
-            return Json.createObjectBuilder().add("error", okHttpResponse.body().string()).
-                    add(HTTP_STATUS_CODE, Json.createValue(okHttpResponse.code())).build();
-        } catch (IOException e) {
-            LOG.error("Error accessing external service: " + okHttpRequest.url(), e);
-            return null;
+    // Complete the future on a worker so that dependent stages do not run on the thread of the HTTP client
+    private void complete(CompletableFuture<JsonObject> result, JsonObject value, Throwable error) {
+        try {
+            workers.execute(() -> {
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+
+    private static JsonObject read_response(Request okHttpRequest, Response okHttpResponse) throws IOException {
+        if (okHttpResponse.isSuccessful()) {
+            try (Reader reader = okHttpResponse.body().charStream();
+                    JsonReader jsonReader = Json.createReader(reader)) {
+                return jsonReader.readObject();
+            } catch (JsonParsingException e) {
+                LOG.error("Error parsing JSON of external service: " + okHttpRequest.url(), e);
+                return null;
+            }
         }
+
+        // Set response as the error field and save the status code.
+        return Json.createObjectBuilder().add("error", okHttpResponse.body().string()).
+                add(HTTP_STATUS_CODE, Json.createValue(okHttpResponse.code())).build();
     }
 }
 
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.pass.object.model.Journal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Matches journals by name and issns.
+ * <p>
+ * A journal matches if it has the name or any of the issns. The score of a match is one for the name plus one for
+ * each of the issns the journal has. The best match has the highest score and of those the lowest id.
+ * <p>
+ * The names and issns of all journals are kept in memory so that a journal which is already up to date can be
+ * matched without querying the database. The index is loaded when first used and kept fresh by
+ * {@link #update(Journal)} and {@link #remove(Long)} which are called by the Journal lifecycle hooks bound by
+ * {@link JournalIndexConfiguration}. Hooks only see changes made on this node, so the index is also reloaded every
+ * pass.doi.journal-index.reload-interval. Otherwise journals are matched by a single query which computes the
+ * scores.
+ */
+@Component
+public class JournalIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalIndex.class);
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private volatile Index index;
+
+    /**
+     * @param jdbc used to load and match journals
+     * @param enabled whether journals are indexed in memory
+     */
+    @Autowired
+    public JournalIndex(JdbcTemplate jdbc, @Value("${pass.doi.journal-index.enabled}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+    }
+
+    /**
+     * A journal matching a name or issns.
+     *
+     * @param journalId id of the journal
+     * @param score number of the name and issns the journal has
+     */
+    public record Match(Long journalId, int score) {
+    }
+
+    private record Entry(Long id, String name, Set<String> issns, boolean updatedByJournalLoader) {
+        static Entry of(Journal journal) {
+            return new Entry(journal.getId(), journal.getJournalName(),
+                Collections.unmodifiableSet(new HashSet<>(journal.getIssns())),
+                journal.getNlmta() != null || journal.getPmcParticipation() != null);
+        }
+    }
+
+    private static class Index {
+        private final Map<Long, Entry> journals = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> by_name = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> by_issn = new ConcurrentHashMap<>();
+
+        void add(Entry entry) {
+            remove(entry.id());
+            journals.put(entry.id(), entry);
+
+            if (entry.name() != null) {
+                by_name.computeIfAbsent(entry.name(), k -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+
+            entry.issns().stream().filter(Objects::nonNull).forEach(
+                issn -> by_issn.computeIfAbsent(issn, k -> ConcurrentHashMap.newKeySet()).add(entry.id()));
+        }
+
+        void remove(Long id) {
+            Entry entry = journals.remove(id);
+
+            if (entry == null) {
+                return;
+            }
+
+            if (entry.name() != null) {
+                remove(by_name, entry.name(), id);
+            }
+
+            entry.issns().stream().filter(Objects::nonNull).forEach(issn -> remove(by_issn, issn, id));
+        }
+
+        private static void remove(Map<String, Set<Long>> ids_by_key, String key, Long id) {
+            ids_by_key.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Return the journal a Crossref journal would be resolved to if resolving it would not change the journal.
+     * That is the best match if it has the name and all the issns or is maintained by the journal loader.
+     *
+     * @param name the name of the journal
+     * @param issns the issns of the journal
+     * @return id of the journal or null if it is not known without querying the database
+     */
+    public Long findUnchanged(String name, List<String> issns) {
+        Index current = get_index();
+
+        if (current == null) {
+            return null;
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+
+        if (name != null) {
+            current.by_name.getOrDefault(name, Set.of()).forEach(id -> scores.merge(id, 1, Integer::sum));
+        }
+
+        for (String issn : new LinkedHashSet<>(issns)) {
+            current.by_issn.getOrDefault(issn, Set.of()).forEach(id -> scores.merge(id, 1, Integer::sum));
+        }
+
+        Match best = best_match(scores);
+        Entry entry = best == null ? null : current.journals.get(best.journalId());
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.updatedByJournalLoader() || (Objects.equals(entry.name(), name)
+            && entry.issns().containsAll(issns))) {
+            return entry.id();
+        }
+
+        return null;
+    }
+
+    /**
+     * Match journals in the database with a single query.
+     *
+     * @param name the name of the journal or null
+     * @param issns the issns of the journal
+     * @return the matching journals, best match first
+     */
+    public List<Match> findMatches(String name, List<String> issns) {
+        List<String> distinct_issns = new ArrayList<>(new LinkedHashSet<>(issns));
+        List<String> scores = new ArrayList<>();
+        List<String> filters = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (name != null) {
+            scores.add("CASE WHEN j.journalName = ? THEN 1 ELSE 0 END");
+            args.add(name);
+        }
+
+        if (!distinct_issns.isEmpty()) {
+            String params = String.join(", ", Collections.nCopies(distinct_issns.size(), "?"));
+
+            scores.add("(SELECT COUNT(DISTINCT i.issns) FROM pass_journal_issns i WHERE i.journal_id = j.id"
+                + " AND i.issns IN (" + params + "))");
+            args.addAll(distinct_issns);
+        }
+
+        if (name != null) {
+            filters.add("j.journalName = ?");
+            args.add(name);
+        }
+
+        if (!distinct_issns.isEmpty()) {
+            String params = String.join(", ", Collections.nCopies(distinct_issns.size(), "?"));
+
+            filters.add("j.id IN (SELECT i.journal_id FROM pass_journal_issns i WHERE i.issns IN (" + params + "))");
+            args.addAll(distinct_issns);
+        }
+
+        if (filters.isEmpty()) {
+            return List.of();
+        }
+
+        String sql = "SELECT j.id AS id, " + String.join(" + ", scores) + " AS score FROM pass_journal j WHERE "
+            + String.join(" OR ", filters) + " ORDER BY score DESC, j.id";
+
+        return jdbc.query(sql, (rs, i) -> new Match(rs.getLong("id"), rs.getInt("score")), args.toArray());
+    }
+
+    /**
+     * Index a created or updated journal.
+     *
+     * @param journal the journal
+     */
+    public synchronized void update(Journal journal) {
+        Index current = index;
+
+        if (current == null) {
+            return;
+        }
+
+        try {
+            current.add(Entry.of(journal));
+        } catch (RuntimeException e) {
+            // The journal could not be read, load the index again when it is next used
+            LOG.warn("Failed to index journal {}", journal.getId(), e);
+            index = null;
+        }
+    }
+
+    /**
+     * Remove a deleted journal from the index.
+     *
+     * @param id id of the journal
+     */
+    public synchronized void remove(Long id) {
+        Index current = index;
+
+        if (current != null) {
+            current.remove(id);
+        }
+    }
+
+    /**
+     * Load the index again so that changes made on other nodes are seen.
+     */
+    @Scheduled(fixedDelayString = "${pass.doi.journal-index.reload-interval}")
+    public synchronized void reload() {
+        if (index != null) {
+            index = load();
+        }
+    }
+
+    private static Match best_match(Map<Long, Integer> scores) {
+        Match best = null;
+
+        for (Map.Entry<Long, Integer> e : scores.entrySet()) {
+            if (best == null || e.getValue() > best.score()
+                || (e.getValue() == best.score() && e.getKey() < best.journalId())) {
+                best = new Match(e.getKey(), e.getValue());
+            }
+        }
+
+        return best;
+    }
+
+    private Index get_index() {
+        if (!enabled) {
+            return null;
+        }
+
+        Index current = index;
+
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    // Updates are applied by the caller holding the lock, so none are lost while loading
+    private Index load() {
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, Set<String>> issns = new HashMap<>();
+
+        try {
+            jdbc.query("SELECT journal_id, issns FROM pass_journal_issns", rs -> {
+                issns.computeIfAbsent(rs.getLong("journal_id"), k -> new HashSet<>()).add(rs.getString("issns"));
+            });
+
+            jdbc.query("SELECT id, journalName, nlmta, pmcParticipation FROM pass_journal", rs -> {
+                Long id = rs.getLong("id");
+
+                entries.add(new Entry(id, rs.getString("journalName"),
+                    Collections.unmodifiableSet(issns.getOrDefault(id, Set.of())),
+                    rs.getString("nlmta") != null || rs.getString("pmcParticipation") != null));
+            });
+        } catch (DataAccessException e) {
+            LOG.warn("Failed to load journal index", e);
+            return null;
+        }
+
+        Index result = new Index();
+        entries.forEach(result::add);
+
+        LOG.debug("Indexed {} journals", result.journals.size());
+
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import java.util.List;
+
+import com.yahoo.elide.annotation.LifeCycleHookBinding.Operation;
+import com.yahoo.elide.annotation.LifeCycleHookBinding.TransactionPhase;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.lifecycle.LifeCycleHook;
+import org.eclipse.pass.object.model.Journal;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adds triggers to the EntityDictionary which keep the JournalIndex up to date once a change to a Journal is
+ * committed.
+ */
+@Configuration
+public class JournalIndexConfiguration {
+    /**
+     * @param dictionary the EntityDictionary the triggers are bound to
+     * @param journalIndex the JournalIndex which is kept up to date
+     */
+    public JournalIndexConfiguration(EntityDictionary dictionary, JournalIndex journalIndex) {
+        LifeCycleHook<Journal> journal_hook = (op, phase, journal, scope, changes) -> {
+            if (op == Operation.DELETE) {
+                journalIndex.remove(journal.getId());
+            } else {
+                journalIndex.update(journal);
+            }
+        };
+
+        for (Operation op : List.of(Operation.CREATE, Operation.UPDATE, Operation.DELETE)) {
+            dictionary.bindTrigger(Journal.class, op, TransactionPhase.POSTCOMMIT, journal_hook, false);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.json.JsonObject;
+
+/**
+ * Queue of Crossref records whose journals are resolved in batches by
+ * {@link ElideConnector#resolveJournals(List)}. Batches are resolved one at a time by the given executor, so the
+ * thread queueing a record does not wait. Records queued while a batch is being resolved form the next batch.
+ */
+class JournalResolutionQueue {
+    private final ElideConnector elideConnector;
+    private final Executor executor;
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean resolving = new AtomicBoolean();
+
+    /**
+     * @param elideConnector used to resolve the journals
+     * @param executor resolves the batches
+     */
+    JournalResolutionQueue(ElideConnector elideConnector, Executor executor) {
+        this.elideConnector = elideConnector;
+        this.executor = executor;
+    }
+
+    private record Pending(JsonObject xrefJsonObject, CompletableFuture<String> journalId) {
+    }
+
+    /**
+     * @param xrefJsonObject the supplied crossref JSON object
+     * @return future id of the corresponding Journal object in PASS or null if it could not be resolved
+     */
+    CompletableFuture<String> resolve(JsonObject xrefJsonObject) {
+        Pending p = new Pending(xrefJsonObject, new CompletableFuture<>());
+
+        pending.add(p);
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            if (pending.remove(p)) {
+                p.journalId().completeExceptionally(e);
+            }
+        }
+
+        return p.journalId();
+    }
+
+    private void drain() {
+        // Check again after resolving, a record may have been queued after the last poll
+        while (!pending.isEmpty() && resolving.compareAndSet(false, true)) {
+            List<Pending> batch = new ArrayList<>();
+
+            try {
+                for (Pending p = pending.poll(); p != null; p = pending.poll()) {
+                    batch.add(p);
+                }
+
+                List<String> ids = elideConnector.resolveJournals(batch.stream().map(Pending::xrefJsonObject)
+                    .toList());
+
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).journalId().complete(ids.get(i));
+                }
+            } catch (RuntimeException e) {
+                batch.forEach(p -> p.journalId().completeExceptionally(e));
+            } finally {
+                resolving.set(false);
+            }
+        }
+    }
+}
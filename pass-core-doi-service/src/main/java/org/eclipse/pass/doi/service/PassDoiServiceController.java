@@ -17,204 +17,366 @@
 package org.eclipse.pass.doi.service;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 /**
  * This class defines DOI service endpoints and orchestrates responses
+ * <p>
+ * The endpoints are processed asynchronously. The request thread is released while an external service is
+ * consulted and the response is written once its answer arrives.
+ * <p>
+ * A batch of DOIs POSTed to /doi/batch as a JSON array is resolved in parallel, at most
+ * pass.doi.batch.concurrency DOIs at a time. The answer for each DOI is streamed as a line of NDJSON when it is
+ * complete, so lines are not in the order of the batch. Each line has the DOI and the status and response
+ * /doi/journal and /doi/manuscript would give for it. The journals of DOIs completing together are resolved
+ * together.
+ * <p>
+ * Resolving the journals of a batch and writing its lines are done by a pool of pass.doi.batch.threads threads,
+ * so that a slow client or journal resolution does not hold up lookups for other requests.
  *
  * @author jrm
  */
 @RestController
-public class PassDoiServiceController {
+public class PassDoiServiceController implements DisposableBean {
     private static final Logger LOG = LoggerFactory.getLogger(PassDoiServiceController.class);
 
+    static final int DEFAULT_BATCH_CONCURRENCY = 8;
+    static final int DEFAULT_BATCH_MAX_SIZE = 500;
+    static final long DEFAULT_BATCH_TIMEOUT = 600000;
+    static final int DEFAULT_BATCH_THREADS = 8;
+
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
     private final ElideConnector elideConnector;
     private final ExternalDoiServiceConnector externalDoiServiceConnector;
     private final ExternalDoiService xrefDoiService;
     private final ExternalDoiService unpaywallDoiService;
+    private final int batchConcurrency;
+    private final int batchMaxSize;
+    private final long batchTimeout;
+    private final ThreadPoolExecutor batchExecutor;
+
+    public PassDoiServiceController(ElideConnector elideConnector,
+                            ExternalDoiServiceConnector externalDoiServiceConnector,
+                            ExternalDoiService xrefDoiService,
+                            ExternalDoiService unpaywallDoiService) {
+        this(elideConnector, externalDoiServiceConnector, xrefDoiService, unpaywallDoiService,
+            DEFAULT_BATCH_CONCURRENCY, DEFAULT_BATCH_MAX_SIZE, DEFAULT_BATCH_TIMEOUT, DEFAULT_BATCH_THREADS);
+    }
 
+    /**
+     * @param elideConnector used to resolve journals
+     * @param externalDoiServiceConnector used to consult external services
+     * @param xrefDoiService the Crossref service
+     * @param unpaywallDoiService the Unpaywall service
+     * @param batchConcurrency maximum number of DOIs of a batch resolved at a time
+     * @param batchMaxSize maximum number of DOIs in a batch
+     * @param batchTimeout milliseconds a batch may take
+     * @param batchThreads number of threads resolving journals and writing lines of batches
+     */
+    @Autowired
     public PassDoiServiceController(ElideConnector elideConnector,
                             ExternalDoiServiceConnector externalDoiServiceConnector,
                             @Qualifier("xrefDoiService") ExternalDoiService xrefDoiService,
-                            @Qualifier("unpaywallDoiService") ExternalDoiService unpaywallDoiService) {
+                            @Qualifier("unpaywallDoiService") ExternalDoiService unpaywallDoiService,
+                            @Value("${pass.doi.batch.concurrency}") int batchConcurrency,
+                            @Value("${pass.doi.batch.max-size}") int batchMaxSize,
+                            @Value("${pass.doi.batch.timeout}") long batchTimeout,
+                            @Value("${pass.doi.batch.threads}") int batchThreads) {
         this.elideConnector = elideConnector;
         this.externalDoiServiceConnector = externalDoiServiceConnector;
         this.xrefDoiService = xrefDoiService;
         this.unpaywallDoiService = unpaywallDoiService;
+        this.batchConcurrency = batchConcurrency;
+        this.batchMaxSize = batchMaxSize;
+        this.batchTimeout = batchTimeout;
+
+        AtomicInteger thread_count = new AtomicInteger();
+        this.batchExecutor = new ThreadPoolExecutor(batchThreads, batchThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "pass-doi-batch-" + thread_count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.batchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void destroy() {
+        batchExecutor.shutdown();
+    }
+
+    // Status and body of a response
+    private record Answer(int status, JsonObject body) {
     }
 
     /**
      * This method handles GET requests to resolve a given DOI to a journal metadata
      *
      * @param request the HTTP Request with the DOI to resolve for a journal
-     * @param response the HTTP Response with the journal metadata
-     * @throws IOException if there is an error writing the response
+     * @return future HTTP Response with the journal metadata
      */
     @GetMapping("/doi/journal")
-    protected void getXrefMetadata(HttpServletRequest request, HttpServletResponse response)
-        throws IOException {
+    protected CompletableFuture<ResponseEntity<String>> getXrefMetadata(HttpServletRequest request) {
+        return journal_answer(request.getParameter("doi"),
+            xrefJsonObject -> CompletableFuture.completedFuture(elideConnector.resolveJournal(xrefJsonObject)))
+            .thenApply(PassDoiServiceController::json_response);
+    }
 
-        ExternalDoiService externalService = xrefDoiService;
+    /**
+     * This method handles GET requests to retrieve a manuscript from Unpaywall REST API for a given DOI. The response
+     * is a JSON object containing the manuscript metadata.
+     *
+     * @param request The HTTP request containing the DOI to be resolved
+     * @return future HTTP response containing the JSON object of the resolved DOI to manuscript metadata
+     */
+    @GetMapping("/doi/manuscript")
+    protected CompletableFuture<ResponseEntity<String>> getUnpaywallMetadata(HttpServletRequest request) {
+        return manuscript_answer(request.getParameter("doi")).thenApply(PassDoiServiceController::json_response);
+    }
+
+    /**
+     * This method handles POST requests to resolve a batch of DOIs. The response is streamed NDJSON with a line
+     * for each DOI as it completes.
+     *
+     * @param body JSON array of DOIs
+     * @return HTTP response streaming the answer for each DOI
+     */
+    @PostMapping("/doi/batch")
+    protected ResponseEntity<ResponseBodyEmitter> getBatchMetadata(@RequestBody(required = false) String body) {
+        List<String> dois = new ArrayList<>();
+
+        try (JsonReader reader = Json.createReader(new StringReader(body == null ? "" : body))) {
+            JsonArray array = reader.readArray();
+
+            for (JsonValue value : array) {
+                if (!(value instanceof JsonString doi)) {
+                    return batch_error(400, "Supplied batch must be a JSON array of DOIs.");
+                }
+
+                dois.add(doi.getString());
+            }
+        } catch (JsonException | IllegalStateException e) {
+            return batch_error(400, "Supplied batch must be a JSON array of DOIs.");
+        }
+
+        if (dois.size() > batchMaxSize) {
+            return batch_error(400, "Supplied batch has more than " + batchMaxSize + " DOIs.");
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeout);
+        Batch batch = new Batch(dois, emitter, new JournalResolutionQueue(elideConnector, batchExecutor));
+
+        emitter.onTimeout(() -> batch.cancelled.set(true));
+        emitter.onError(e -> batch.cancelled.set(true));
+
+        if (dois.isEmpty()) {
+            emitter.complete();
+        }
+
+        for (int i = 0; i < Math.min(batchConcurrency, dois.size()); i++) {
+            start_next(batch);
+        }
+
+        return ResponseEntity.ok().contentType(NDJSON).body(emitter);
+    }
+
+    // State of a batch being resolved
+    private record Batch(List<String> dois, ResponseBodyEmitter emitter, JournalResolutionQueue journals,
+                         AtomicInteger next, AtomicInteger remaining, AtomicBoolean cancelled) {
+        Batch(List<String> dois, ResponseBodyEmitter emitter, JournalResolutionQueue journals) {
+            this(dois, emitter, journals, new AtomicInteger(), new AtomicInteger(dois.size()), new AtomicBoolean());
+        }
+    }
+
+    // Resolve the next DOI of the batch and when it is complete, the one after that
+    private void start_next(Batch batch) {
+        int index = batch.next().getAndIncrement();
 
-        response.setContentType("application/json");
-        response.setCharacterEncoding("utf-8");
+        if (index >= batch.dois().size() || batch.cancelled().get()) {
+            return;
+        }
+
+        String doi = batch.dois().get(index);
+
+        batch_line(doi, batch.journals()).whenCompleteAsync((result, e) -> {
+            JsonObject line = result;
+
+            if (e != null) {
+                LOG.error("Error resolving " + doi, e);
+                line = Json.createObjectBuilder().add("doi", doi).add("error", "There was an error resolving "
+                    + doi).build();
+            }
+
+            try {
+                batch.emitter().send((line.toString() + "\n").getBytes(StandardCharsets.UTF_8), NDJSON);
+            } catch (IOException | IllegalStateException ex) {
+                // The client is gone or the batch timed out
+                batch.cancelled().set(true);
+                return;
+            }
+
+            if (batch.remaining().decrementAndGet() == 0) {
+                batch.emitter().complete();
+            } else {
+                start_next(batch);
+            }
+        }, batchExecutor);
+    }
+
+    private CompletableFuture<JsonObject> batch_line(String doi, JournalResolutionQueue journals) {
+        CompletableFuture<Answer> journal = journal_answer(doi, journals::resolve);
+        CompletableFuture<Answer> manuscript = manuscript_answer(doi);
+
+        return journal.thenCombine(manuscript, (j, m) -> Json.createObjectBuilder()
+            .add("doi", doi)
+            .add("journal", Json.createObjectBuilder().add("status", j.status()).add("response", j.body()))
+            .add("manuscript", Json.createObjectBuilder().add("status", m.status()).add("response", m.body()))
+            .build());
+    }
+
+    private CompletableFuture<Answer> journal_answer(String doi_param,
+            Function<JsonObject, CompletableFuture<String>> resolver) {
+        ExternalDoiService externalService = xrefDoiService;
 
         //we will call out to crossref and collect the work JSON object
         //the value of this parameter is expected to be already URIencoded
-        String doi = externalService.verify(request.getParameter("doi"));
+        String doi = externalService.verify(doi_param);
 
         //stage 1: verify doi is valid
         if (doi == null) {
             // do not have have a valid xref doi
-            try (Writer out = response.getWriter()) {
-                JsonObject jsonObject = Json.createObjectBuilder()
-                                            .add("error", "Supplied DOI is not in valid DOI format.")
-                                            .build();
-                out.write(jsonObject.toString());
-                response.setStatus(400);
-                return;
-            }
+            return CompletableFuture.completedFuture(error_answer(400, "Supplied DOI is not in valid DOI format."));
         }
 
         //stage 2: try to get crossref record, catch errors first, and halt processing
-        JsonObject xrefJsonObject = externalDoiServiceConnector.retrieveMetadata(doi, externalService);
-
-        if (xrefJsonObject == null) {
-            try (Writer out = response.getWriter()) {
+        return externalDoiServiceConnector.retrieveMetadataAsync(doi, externalService).thenCompose(xrefJsonObject -> {
+            if (xrefJsonObject == null) {
                 String message = "There was an error getting the metadata from " +
                                  externalService.name() + " for " + doi;
-                JsonObject jsonObject = Json.createObjectBuilder()
-                                            .add("error", message)
-                                            .build();
-                out.write(jsonObject.toString());
-                response.setStatus(500);
-            }
-        } else if (xrefJsonObject.containsKey("error")) {
-            int responseCode = xrefJsonObject.getInt(ExternalDoiServiceConnector.HTTP_STATUS_CODE);
-            String message;
+                return CompletableFuture.completedFuture(error_answer(500, message));
+            } else if (xrefJsonObject.containsKey("error")) {
+                int responseCode = xrefJsonObject.getInt(ExternalDoiServiceConnector.HTTP_STATUS_CODE);
+                String message;
 
-            if (responseCode == 404) {
-                message = "The resource for DOI " + doi + " could not be found on " + externalService.name() + ".";
-            } else {
-                message = "A record for this resource could not be returned from " + externalService.name() + ": " +
-                        xrefJsonObject.getJsonString("error");
-            }
+                if (responseCode == 404) {
+                    message = "The resource for DOI " + doi + " could not be found on " + externalService.name() +
+                            ".";
+                } else {
+                    message = "A record for this resource could not be returned from " + externalService.name() +
+                            ": " + xrefJsonObject.getJsonString("error");
+                }
 
-            try (Writer out = response.getWriter()) {
-                JsonObject jsonObject = Json.createObjectBuilder()
-                                            .add("error", message)
-                                            .build();
-                out.write(jsonObject.toString());
-                response.setStatus(responseCode);
                 LOG.warn(message);
+                return CompletableFuture.completedFuture(error_answer(responseCode, message));
             }
-        } else {
-            // have a non-empty string to process
-            String journalId = elideConnector.resolveJournal(xrefJsonObject);
-            if (journalId != null) {
 
-                try (Writer out = response.getWriter()) {
-                    JsonObject jsonObject = Json.createObjectBuilder()
-                                                .add("journal-id", journalId)
-                                                .add("crossref", externalService.processObject(xrefJsonObject))
-                                                .build();
-
-                    out.write(jsonObject.toString());
-                    response.setStatus(200);
-                }
-
-            } else {
-                // journal id is null - this should never happen unless Crosssref journal is insufficient
-                // for example, if a book doi ws supplied which has no issns
-                try (Writer out = response.getWriter()) {
+            // have a non-empty string to process
+            // resolving the journal is a short transaction done by a worker of the connector or of the batch
+            return resolver.apply(xrefJsonObject).thenApply(journalId -> {
+                if (journalId == null) {
+                    // journal id is null - this should never happen unless Crosssref journal is insufficient
+                    // for example, if a book doi ws supplied which has no issns
                     String message = "Insufficient information to locate or specify a journal entry.";
-                    JsonObject jsonObject = Json.createObjectBuilder()
-                                                .add("error", message)
-                                                .build();
-                    out.write(jsonObject.toString());
-                    response.setStatus(422);
                     LOG.warn(message);
+                    return error_answer(422, message);
                 }
-            }
-        }
-    }
 
-    /**
-     * This method handles GET requests to retrieve a manuscript from Unpaywall REST API for a given DOI. The response
-     * is a JSON object containing the manuscript metadata.
-     *
-     * @param request The HTTP request containing the DOI to be resolved
-     * @param response The HTTP response containing the JSON object of the resolved DOI to manuscript metadata
-     * @throws IOException if there is an error writing the response
-     */
-    @GetMapping("/doi/manuscript")
-    protected void getUnpaywallMetadata(HttpServletRequest request, HttpServletResponse response)
-        throws IOException {
+                JsonObject jsonObject = Json.createObjectBuilder()
+                                            .add("journal-id", journalId)
+                                            .add("crossref", externalService.processObject(xrefJsonObject))
+                                            .build();
 
-        ExternalDoiService externalService = unpaywallDoiService;
+                return new Answer(200, jsonObject);
+            });
+        });
+    }
 
-        response.setContentType("application/json");
-        response.setCharacterEncoding("utf-8");
+    private CompletableFuture<Answer> manuscript_answer(String doi_param) {
+        ExternalDoiService externalService = unpaywallDoiService;
 
         //we will call out to unpaywall and collect the JSON object
         //the value of this parameter is expected to be already URIencoded
-        String doi = externalService.verify(request.getParameter("doi"));
+        String doi = externalService.verify(doi_param);
 
         //stage 1: verify doi is valid
         if (doi == null) {
             // do not have have a valid doi
-            try (Writer out = response.getWriter()) {
-                JsonObject jsonObject = Json.createObjectBuilder()
-                                            .add("error", "Supplied DOI is not in valid DOI format.")
-                                            .build();
-                out.write(jsonObject.toString());
-                response.setStatus(400);
-                return;
-            }
+            return CompletableFuture.completedFuture(error_answer(400, "Supplied DOI is not in valid DOI format."));
         }
 
         //stage 2: try to get unpaywall record, catch errors first, and halt processing
-        JsonObject unpaywallJsonObject = externalDoiServiceConnector.retrieveMetadata(doi, externalService);
-        if (unpaywallJsonObject == null) {
-            try (Writer out = response.getWriter()) {
-                String message = "There was an error getting the metadata from " +
-                                 externalService.name() + " for " + doi;
-                JsonObject jsonObject = Json.createObjectBuilder()
-                                            .add("error", message)
-                                            .build();
-                out.write(jsonObject.toString());
-                response.setStatus(500);
-            }
-        } else if (unpaywallJsonObject.containsKey("error")) {
-            int responseCode = unpaywallJsonObject.getInt(ExternalDoiServiceConnector.HTTP_STATUS_CODE);
-            String message = "A record for this resource could not be returned from Unpaywall: " +
-                    unpaywallJsonObject.getJsonString("error");
+        return externalDoiServiceConnector.retrieveMetadataAsync(doi, externalService).thenApply(
+            unpaywallJsonObject -> {
+                if (unpaywallJsonObject == null) {
+                    String message = "There was an error getting the metadata from " +
+                                     externalService.name() + " for " + doi;
+                    return error_answer(500, message);
+                } else if (unpaywallJsonObject.containsKey("error")) {
+                    int responseCode = unpaywallJsonObject.getInt(ExternalDoiServiceConnector.HTTP_STATUS_CODE);
+                    String message = "A record for this resource could not be returned from Unpaywall: " +
+                            unpaywallJsonObject.getJsonString("error");
 
-            try (Writer out = response.getWriter()) {
-                JsonObject jsonObject = Json.createObjectBuilder()
-                                            .add("error", message)
-                                            .build();
-                out.write(jsonObject.toString());
-                response.setStatus(responseCode);
-                LOG.warn(message);
-            }
-        } else {
-            // have a non-empty JSON string to process
-            try (Writer out = response.getWriter()) {
-                JsonObject jsonObject = externalService.processObject(unpaywallJsonObject);
-                out.write(jsonObject.toString());
-                response.setStatus(200);
-            }
+                    LOG.warn(message);
+                    return error_answer(responseCode, message);
+                }
+
+                // have a non-empty JSON string to process
+                return new Answer(200, externalService.processObject(unpaywallJsonObject));
+            });
+    }
+
+    private static Answer error_answer(int status, String message) {
+        return new Answer(status, Json.createObjectBuilder().add("error", message).build());
+    }
+
+    private static ResponseEntity<String> json_response(Answer answer) {
+        return ResponseEntity.status(answer.status()).contentType(MediaType.APPLICATION_JSON)
+            .body(answer.body().toString());
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> batch_error(int status, String message) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+
+        try {
+            emitter.send(error_answer(status, message).body().toString(), MediaType.APPLICATION_JSON);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
         }
+
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(emitter);
     }
-}
\ No newline at end of file
+}
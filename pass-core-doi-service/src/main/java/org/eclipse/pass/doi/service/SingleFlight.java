@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key. The first caller does the work and callers arriving while it is in
+ * progress wait for and share its result. Once the work is done, the next call with the key does it again.
+ *
+ * @param <K> type of key
+ * @param <V> type of result
+ */
+class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> in_flight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key identifies the work
+     * @param work the work to do unless it is already in progress
+     * @return result of the work
+     */
+    V execute(K key, Supplier<V> work) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = in_flight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            V result = work.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            in_flight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Start work which completes asynchronously unless work with the key is already in progress. The work is in
+     * progress until the future it returns completes.
+     *
+     * @param key identifies the work
+     * @param work starts the work unless it is already in progress
+     * @return future result of the work
+     */
+    CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> work) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = in_flight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<V> result;
+
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((value, e) -> {
+            // Calls after the work is done start it again
+            in_flight.remove(key, mine);
+
+            if (e == null) {
+                mine.complete(value);
+            } else {
+                mine.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                    ? e.getCause() : e);
+            }
+        });
+
+        return mine;
+    }
+
+    /**
+     * @return number of keys with work in progress
+     */
+    int inFlight() {
+        return in_flight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+
+            throw e;
+        }
+    }
+}
@@ -19,13 +19,25 @@ package org.eclipse.pass.doi.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.json.JsonObject;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import okhttp3.mockwebserver.SocketPolicy;
 import org.junit.jupiter.api.Test;
 
@@ -118,4 +130,95 @@ public class ExternalDoiServiceConnectorTest {
             assertEquals("bar", result.getString("foo"));
         }
     }
+
+    @Test
+    void testConcurrentRetrievalsShareOneRequest() throws Exception {
+        int callers = 10;
+
+        try (MockWebServer server = new MockWebServer()) {
+            // Slow enough that every caller arrives while the request is in flight
+            server.enqueue(new MockResponse().setBody("{\"foo\":\"bar\"}").setHeadersDelay(2, TimeUnit.SECONDS));
+            server.enqueue(new MockResponse().setResponseCode(500));
+
+            ExternalDoiService service = mockService(server.url("/").toString());
+            ExecutorService executor = Executors.newFixedThreadPool(callers);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<JsonObject>> results = new ArrayList<>();
+
+            try {
+                for (int i = 0; i < callers; i++) {
+                    // DOIs are compared ignoring case
+                    String doi = i % 2 == 0 ? "10.4137/cmc.s38446" : "10.4137/CMC.S38446";
+
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return underTest.retrieveMetadata(doi, service);
+                    }));
+                }
+
+                start.countDown();
+
+                for (Future<JsonObject> result : results) {
+                    assertEquals("bar", result.get(30, TimeUnit.SECONDS).getString("foo"));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(1, server.getRequestCount());
+        }
+    }
+
+    @Test
+    void testAsyncRetrievalsCappedPerHost() throws Exception {
+        int lookups = 6;
+        int max_per_host = 2;
+        ExternalDoiServiceConnector connector = new ExternalDoiServiceConnector(null, 4, max_per_host, 2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger max_active = new AtomicInteger();
+
+        try (MockWebServer server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                    max_active.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(200);
+                    active.decrementAndGet();
+
+                    return new MockResponse().setBody("{\"foo\":\"bar\"}");
+                }
+            });
+
+            ExternalDoiService service = mockService(server.url("/").toString());
+            List<CompletableFuture<JsonObject>> results = new ArrayList<>();
+
+            // Every lookup is started by this thread without waiting on the external service
+            for (int i = 0; i < lookups; i++) {
+                results.add(connector.retrieveMetadataAsync("10.4137/cmc.s" + i, service));
+            }
+
+            for (CompletableFuture<JsonObject> result : results) {
+                assertEquals("bar", result.get(30, TimeUnit.SECONDS).getString("foo"));
+            }
+
+            assertEquals(lookups, server.getRequestCount());
+            assertTrue(max_active.get() <= max_per_host);
+        }
+    }
+
+    @Test
+    void testAsyncRetrievalCompletedByWorker() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody("{\"foo\":\"bar\"}").setHeadersDelay(200,
+                TimeUnit.MILLISECONDS));
+
+            ExternalDoiService service = mockService(server.url("/").toString());
+
+            // The lookup is still in progress, so the stage runs on the thread completing it
+            String thread = underTest.retrieveMetadataAsync("10.4137/cmc.s1", service)
+                .thenApply(value -> Thread.currentThread().getName()).get(30, TimeUnit.SECONDS);
+
+            assertTrue(thread.startsWith(ExternalDoiServiceConnector.WORKER_THREAD_PREFIX));
+        }
+    }
 }
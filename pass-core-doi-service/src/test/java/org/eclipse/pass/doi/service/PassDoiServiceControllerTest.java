@@ -18,22 +18,32 @@ package org.eclipse.pass.doi.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-import java.io.IOException;
-import java.io.PrintWriter;
 import java.io.StringReader;
-import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 /**
  * These unit tests check how the controller handles success and error conditions from the external
@@ -65,85 +75,71 @@ class PassDoiServiceControllerTest {
     }
 
     @Test
-    void testGetXrefMetadata_Success() throws IOException {
+    void testGetXrefMetadata_Success() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(xrefDoiService.verify(doi)).thenReturn(doi);
 
         JsonObject xrefJson = Json.createObjectBuilder().add("a", "b").build();
         JsonObject processedJson = Json.createObjectBuilder().add("processed", "true").build();
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, xrefDoiService)).thenReturn(xrefJson);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, xrefDoiService)).thenReturn(
+            CompletableFuture.completedFuture(xrefJson));
         when(elideConnector.resolveJournal(xrefJson)).thenReturn("journal-1");
         when(xrefDoiService.processObject(xrefJson)).thenReturn(processedJson);
 
-        controller.getXrefMetadata(request, response);
+        ResponseEntity<String> response = controller.getXrefMetadata(request).join();
 
-        verify(response).setStatus(200);
-        verify(response).setContentType("application/json");
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
 
-        JsonObject result = parseJson(stringWriter.toString());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("journal-1", result.getString("journal-id"));
         assertEquals(processedJson, result.getJsonObject("crossref"));
     }
 
     @Test
-    void testGetXrefMetadata_InvalidDoi() throws IOException {
+    void testGetXrefMetadata_InvalidDoi() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "invalid-doi";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(xrefDoiService.verify(doi)).thenReturn(null);
 
-        controller.getXrefMetadata(request, response);
+        ResponseEntity<String> response = controller.getXrefMetadata(request).join();
 
-        verify(response).setStatus(400);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(400, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("Supplied DOI is not in valid DOI format.", result.getString("error"));
     }
 
     @Test
-    void testGetXrefMetadata_ServiceError_NullCheck() throws IOException {
+    void testGetXrefMetadata_ServiceError_NullCheck() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(xrefDoiService.verify(doi)).thenReturn(doi);
         when(xrefDoiService.name()).thenReturn("Crossref");
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, xrefDoiService)).thenReturn(null);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, xrefDoiService)).thenReturn(
+            CompletableFuture.completedFuture(null));
 
-        controller.getXrefMetadata(request, response);
+        ResponseEntity<String> response = controller.getXrefMetadata(request).join();
 
-        verify(response).setStatus(500);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(500, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("There was an error getting the metadata from Crossref for " + doi, result.getString("error"));
     }
 
     @Test
-    void testGetXrefMetadata_ServiceError_404() throws IOException {
+    void testGetXrefMetadata_ServiceError_404() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(xrefDoiService.verify(doi)).thenReturn(doi);
         when(xrefDoiService.name()).thenReturn("Crossref");
 
@@ -152,115 +148,99 @@ class PassDoiServiceControllerTest {
                 .add(ExternalDoiServiceConnector.HTTP_STATUS_CODE, 404)
                 .build();
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, xrefDoiService)).thenReturn(errorJson);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, xrefDoiService)).thenReturn(
+            CompletableFuture.completedFuture(errorJson));
 
-        controller.getXrefMetadata(request, response);
+        ResponseEntity<String> response = controller.getXrefMetadata(request).join();
 
-        verify(response).setStatus(404);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(404, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("The resource for DOI " + doi + " could not be found on Crossref.", result.getString("error"));
     }
 
     @Test
-    void testGetXrefMetadata_NoJournalId() throws IOException {
+    void testGetXrefMetadata_NoJournalId() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(xrefDoiService.verify(doi)).thenReturn(doi);
 
         JsonObject xrefJson = Json.createObjectBuilder().add("a", "b").build();
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, xrefDoiService)).thenReturn(xrefJson);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, xrefDoiService)).thenReturn(
+            CompletableFuture.completedFuture(xrefJson));
         when(elideConnector.resolveJournal(xrefJson)).thenReturn(null);
 
-        controller.getXrefMetadata(request, response);
+        ResponseEntity<String> response = controller.getXrefMetadata(request).join();
 
-        verify(response).setStatus(422);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(422, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("Insufficient information to locate or specify a journal entry.", result.getString("error"));
     }
 
     @Test
-    void testGetUnpaywallMetadata_Success() throws IOException {
+    void testGetUnpaywallMetadata_Success() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(unpaywallDoiService.verify(doi)).thenReturn(doi);
 
         JsonObject unpaywallJson = Json.createObjectBuilder().add("a", "b").build();
         JsonObject processedJson = Json.createObjectBuilder().add("processed", "true").build();
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, unpaywallDoiService)).thenReturn(unpaywallJson);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, unpaywallDoiService)).thenReturn(
+            CompletableFuture.completedFuture(unpaywallJson));
         when(unpaywallDoiService.processObject(unpaywallJson)).thenReturn(processedJson);
 
-        controller.getUnpaywallMetadata(request, response);
+        ResponseEntity<String> response = controller.getUnpaywallMetadata(request).join();
 
-        verify(response).setStatus(200);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(200, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals(processedJson, result);
     }
 
     @Test
-    void testGetUnpaywallMetadata_InvalidDoi() throws IOException {
+    void testGetUnpaywallMetadata_InvalidDoi() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "invalid-doi";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(unpaywallDoiService.verify(doi)).thenReturn(null);
 
-        controller.getUnpaywallMetadata(request, response);
+        ResponseEntity<String> response = controller.getUnpaywallMetadata(request).join();
 
-        verify(response).setStatus(400);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(400, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("Supplied DOI is not in valid DOI format.", result.getString("error"));
     }
 
     @Test
-    void testGetUnpaywallMetadata_ServiceError_Null() throws IOException {
+    void testGetUnpaywallMetadata_ServiceError_Null() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(unpaywallDoiService.verify(doi)).thenReturn(doi);
         when(unpaywallDoiService.name()).thenReturn("Unpaywall");
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, unpaywallDoiService)).thenReturn(null);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, unpaywallDoiService)).thenReturn(
+            CompletableFuture.completedFuture(null));
 
-        controller.getUnpaywallMetadata(request, response);
+        ResponseEntity<String> response = controller.getUnpaywallMetadata(request).join();
 
-        verify(response).setStatus(500);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(500, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertEquals("There was an error getting the metadata from Unpaywall for " + doi, result.getString("error"));
     }
 
     @Test
-    void testGetUnpaywallMetadata_ServiceError_WithCode() throws IOException {
+    void testGetUnpaywallMetadata_ServiceError_WithCode() {
         HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
 
         String doi = "10.1234/5678";
         when(request.getParameter("doi")).thenReturn(doi);
-        when(response.getWriter()).thenReturn(writer);
         when(unpaywallDoiService.verify(doi)).thenReturn(doi);
 
         JsonObject errorJson = Json.createObjectBuilder()
@@ -268,15 +248,99 @@ class PassDoiServiceControllerTest {
                 .add(ExternalDoiServiceConnector.HTTP_STATUS_CODE, 503)
                 .build();
 
-        when(externalDoiServiceConnector.retrieveMetadata(doi, unpaywallDoiService)).thenReturn(errorJson);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi, unpaywallDoiService)).thenReturn(
+            CompletableFuture.completedFuture(errorJson));
 
-        controller.getUnpaywallMetadata(request, response);
+        ResponseEntity<String> response = controller.getUnpaywallMetadata(request).join();
 
-        verify(response).setStatus(503);
-        JsonObject result = parseJson(stringWriter.toString());
+        assertEquals(503, response.getStatusCode().value());
+        JsonObject result = parseJson(response.getBody());
         assertTrue(result.getString("error").contains("Some Error"));
     }
 
+    @Test
+    void testGetBatchMetadata() throws Exception {
+        String doi1 = "10.1234/1";
+        String doi2 = "10.1234/2";
+
+        JsonObject xrefJson = Json.createObjectBuilder().add("a", "b").build();
+        JsonObject unpaywallJson = Json.createObjectBuilder().add("c", "d").build();
+        JsonObject errorJson = Json.createObjectBuilder()
+                .add("error", "Not found")
+                .add(ExternalDoiServiceConnector.HTTP_STATUS_CODE, 404)
+                .build();
+
+        for (String doi : List.of(doi1, doi2)) {
+            when(xrefDoiService.verify(doi)).thenReturn(doi);
+            when(unpaywallDoiService.verify(doi)).thenReturn(doi);
+        }
+
+        when(xrefDoiService.name()).thenReturn("Crossref");
+        when(xrefDoiService.processObject(xrefJson)).thenReturn(xrefJson);
+        when(unpaywallDoiService.processObject(unpaywallJson)).thenReturn(unpaywallJson);
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi1, xrefDoiService)).thenReturn(
+            CompletableFuture.completedFuture(xrefJson));
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi1, unpaywallDoiService)).thenReturn(
+            CompletableFuture.completedFuture(unpaywallJson));
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi2, xrefDoiService)).thenReturn(
+            CompletableFuture.completedFuture(errorJson));
+        when(externalDoiServiceConnector.retrieveMetadataAsync(doi2, unpaywallDoiService)).thenReturn(
+            CompletableFuture.completedFuture(null));
+        when(elideConnector.resolveJournals(anyList())).thenAnswer(
+            invocation -> ((List<?>) invocation.getArgument(0)).stream().map(x -> "journal-1").toList());
+
+        Map<String, JsonObject> lines = performBatch("[\"" + doi1 + "\", \"" + doi2 + "\", \"invalid-doi\"]");
+
+        assertEquals(3, lines.size());
+
+        JsonObject journal = lines.get(doi1).getJsonObject("journal");
+        assertEquals(200, journal.getInt("status"));
+        assertEquals("journal-1", journal.getJsonObject("response").getString("journal-id"));
+        assertEquals(xrefJson, journal.getJsonObject("response").getJsonObject("crossref"));
+        assertEquals(200, lines.get(doi1).getJsonObject("manuscript").getInt("status"));
+        assertEquals(unpaywallJson, lines.get(doi1).getJsonObject("manuscript").getJsonObject("response"));
+
+        assertEquals(404, lines.get(doi2).getJsonObject("journal").getInt("status"));
+        assertEquals("The resource for DOI " + doi2 + " could not be found on Crossref.",
+            lines.get(doi2).getJsonObject("journal").getJsonObject("response").getString("error"));
+        assertEquals(500, lines.get(doi2).getJsonObject("manuscript").getInt("status"));
+
+        assertEquals(400, lines.get("invalid-doi").getJsonObject("journal").getInt("status"));
+        assertEquals(400, lines.get("invalid-doi").getJsonObject("manuscript").getInt("status"));
+    }
+
+    @Test
+    void testGetBatchMetadata_Invalid() throws Exception {
+        controller = new PassDoiServiceController(elideConnector, externalDoiServiceConnector, xrefDoiService,
+            unpaywallDoiService, 2, 2, 10000, 2);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        for (String body : List.of("{\"doi\": \"10.1234/1\"}", "[1, 2]", "[\"a\", \"b\", \"c\"]")) {
+            MvcResult result = mockMvc.perform(post("/doi/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(body)).andReturn();
+
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isBadRequest());
+            assertTrue(parseJson(result.getResponse().getContentAsString()).containsKey("error"));
+        }
+    }
+
+    private Map<String, JsonObject> performBatch(String body) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        MvcResult result = mockMvc.perform(post("/doi/batch").contentType(MediaType.APPLICATION_JSON)
+            .content(body)).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        Map<String, JsonObject> lines = new HashMap<>();
+
+        for (String line : result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            JsonObject object = parseJson(line);
+            lines.put(object.getString("doi"), object);
+        }
+
+        return lines;
+    }
+
     private JsonObject parseJson(String json) {
         try (JsonReader reader = Json.createReader(new StringReader(json))) {
             return reader.readObject();
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.util.HashSet;
+import java.util.List;
+
+import com.yahoo.elide.core.datastore.DataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Answer page totals of large unfiltered collections from Postgres planner statistics.
+ * Enabled by setting pass.approximate-totals.enabled to true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pass.approximate-totals.enabled", havingValue = "true")
+public class ApproximateTotalsConfiguration {
+    private static final Logger LOG = LoggerFactory.getLogger(ApproximateTotalsConfiguration.class);
+
+    private static final String ESTIMATE_QUERY = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+
+    /**
+     * Wrap the Elide DataStore so that totals may be estimated.
+     *
+     * @param jdbc used to query the planner statistics
+     * @param types JSON API types whose totals may be estimated
+     * @param minRows minimum estimated number of rows before the estimate is used
+     * @return post processor wrapping the DataStore
+     */
+    @Bean
+    static BeanPostProcessor approximateTotalsPostProcessor(ObjectProvider<JdbcTemplate> jdbc,
+            @Value("${pass.approximate-totals.types}") List<String> types,
+            @Value("${pass.approximate-totals.min-rows}") long minRows) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataStore store && !(bean instanceof ApproximateTotalsDataStore)) {
+                    return new ApproximateTotalsDataStore(store, new HashSet<>(types), minRows,
+                        table -> estimate(jdbc.getObject(), table));
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    private static Long estimate(JdbcTemplate jdbc, String table) {
+        try {
+            Long estimate = jdbc.queryForObject(ESTIMATE_QUERY, Long.class, table);
+
+            // A table which has never been analyzed has an estimate of -1
+            return estimate == null || estimate < 0 ? null : estimate;
+        } catch (DataAccessException e) {
+            LOG.warn("Failed to estimate size of table {}", table, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.datastore.DataStore;
+import com.yahoo.elide.core.datastore.DataStoreIterable;
+import com.yahoo.elide.core.datastore.DataStoreTransaction;
+import com.yahoo.elide.core.datastore.wrapped.TransactionWrapper;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.pagination.PaginationImpl;
+import com.yahoo.elide.core.request.EntityProjection;
+import com.yahoo.elide.core.request.Pagination;
+import com.yahoo.elide.core.type.Type;
+import jakarta.persistence.Table;
+
+/**
+ * DataStore which answers requests for page totals of large unfiltered collections with an estimate instead of
+ * counting every row. When an estimate is used, the response meta has approximateTotals set to true.
+ * <p>
+ * Only the configured types are estimated and only when the estimate is at least the minimum number of rows.
+ * Smaller tables are counted exactly.
+ */
+public class ApproximateTotalsDataStore implements DataStore {
+    /**
+     * Name of the response meta field set when page totals are approximate.
+     */
+    public static final String APPROXIMATE_TOTALS = "approximateTotals";
+
+    private final DataStore dataStore;
+    private final Set<String> types;
+    private final long minRows;
+    private final Function<String, Long> estimator;
+
+    /**
+     * @param dataStore DataStore to wrap
+     * @param types JSON API types whose totals may be estimated
+     * @param minRows minimum estimated number of rows before the estimate is used
+     * @param estimator returns the estimated number of rows in a table or null if unknown
+     */
+    public ApproximateTotalsDataStore(DataStore dataStore, Set<String> types, long minRows,
+                                      Function<String, Long> estimator) {
+        this.dataStore = dataStore;
+        this.types = types;
+        this.minRows = minRows;
+        this.estimator = estimator;
+    }
+
+    @Override
+    public void populateEntityDictionary(EntityDictionary dictionary) {
+        dataStore.populateEntityDictionary(dictionary);
+    }
+
+    @Override
+    public DataStoreTransaction beginTransaction() {
+        return new ApproximateTotalsTransaction(dataStore.beginTransaction());
+    }
+
+    @Override
+    public DataStoreTransaction beginReadTransaction() {
+        return new ApproximateTotalsTransaction(dataStore.beginReadTransaction());
+    }
+
+    private Long estimate(EntityProjection projection) {
+        Pagination pagination = projection.getPagination();
+        Type<?> type = projection.getType();
+
+        if (pagination == null || !pagination.returnPageTotals() || projection.getFilterExpression() != null
+            || !types.contains(EntityDictionary.getEntityName(type))) {
+            return null;
+        }
+
+        Table table = type.getAnnotation(Table.class);
+
+        if (table == null) {
+            return null;
+        }
+
+        Long estimate = estimator.apply(table.name());
+
+        return estimate == null || estimate < minRows ? null : estimate;
+    }
+
+    private class ApproximateTotalsTransaction extends TransactionWrapper {
+        ApproximateTotalsTransaction(DataStoreTransaction tx) {
+            super(tx);
+        }
+
+        @Override
+        public <T> DataStoreIterable<T> loadObjects(EntityProjection projection, RequestScope scope) {
+            Long estimate = estimate(projection);
+
+            if (estimate == null) {
+                return super.loadObjects(projection, scope);
+            }
+
+            // Load the page without asking the wrapped store to count the rows
+            Pagination pagination = projection.getPagination();
+            EntityProjection page = projection.copyOf().pagination(new PaginationImpl(projection.getType(),
+                pagination.getOffset(), pagination.getLimit(), pagination.getLimit(), pagination.getLimit(),
+                false, false)).build();
+
+            DataStoreIterable<T> result = super.loadObjects(page, scope);
+
+            pagination.setPageTotals(estimate);
+            scope.setMetadataField(APPROXIMATE_TOTALS, true);
+
+            return result;
+        }
+    }
+}
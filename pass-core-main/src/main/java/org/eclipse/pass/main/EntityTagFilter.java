@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.elide.annotation.ReadPermission;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.type.ClassType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.pass.main.repository.DepositRepository;
+import org.eclipse.pass.main.repository.SubmissionRepository;
+import org.eclipse.pass.object.model.Deposit;
+import org.eclipse.pass.object.model.Submission;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Filter adding an ETag to responses for individual JSON API resources and answering If-None-Match.
+ * <p>
+ * The ETag is only added once Elide has authorized the request and returned the resource. The ETag of a
+ * resource with a version, requested without includes, is its version. The tag is weak if the representation
+ * depends on the query, for example sparse fields. Otherwise the ETag is a hash of the response. If-Match is
+ * checked against the version of a submission or deposit in the transaction of the update by the version check
+ * hooks in {@link JmsConfiguration}.
+ * <p>
+ * If-None-Match for a submission or deposit is answered from its version alone without running the Elide
+ * request, but only if Elide would let every authenticated user read it.
+ */
+@Component
+public class EntityTagFilter extends ShallowEtagHeaderFilter {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String READ_BY_ALL = "Prefab.Role.All";
+
+    private final Pattern resource_path;
+    private final Map<String, LongFunction<Long>> version_lookups;
+
+    /**
+     * @param dataPath path of the JSON API endpoint
+     * @param dictionary the EntityDictionary holding the read permissions of the types
+     * @param submissionRepository the SubmissionRepository used to look up submission versions
+     * @param depositRepository the DepositRepository used to look up deposit versions
+     */
+    public EntityTagFilter(@Value("${elide.json-api.path}") String dataPath, EntityDictionary dictionary,
+                           SubmissionRepository submissionRepository, DepositRepository depositRepository) {
+        this.resource_path = Pattern.compile("^" + Pattern.quote(dataPath) + "/([^/]+)/(\\d+)/?$");
+        this.version_lookups = new HashMap<>();
+
+        if (readableByAll(dictionary, Submission.class)) {
+            version_lookups.put("submission", submissionRepository::findSubmissionVersionById);
+        }
+
+        if (readableByAll(dictionary, Deposit.class)) {
+            version_lookups.put("deposit", depositRepository::findDepositVersionById);
+        }
+    }
+
+    // Spring Security has already required an authenticated user, so Elide's read check is passed
+    private static boolean readableByAll(EntityDictionary dictionary, Class<?> type) {
+        ReadPermission permission = dictionary.getAnnotation(ClassType.of(type), ReadPermission.class);
+
+        return permission != null && READ_BY_ALL.equals(permission.expression().trim());
+    }
+
+    /**
+     * @param version version of the resource
+     * @param query query string of the request or null
+     * @return ETag header value of a versioned resource
+     */
+    static String versionTag(long version, String query) {
+        if (query == null) {
+            return "\"" + version + "\"";
+        }
+
+        // The representation depends on the query so it is only weakly identified by the version
+        return "W/\"" + version + "-" + Integer.toHexString(query.hashCode()) + "\"";
+    }
+
+    /**
+     * @param tag ETag header value
+     * @return version the ETag was made from by {@link #versionTag(long, String)} or null if it is not such a tag
+     */
+    static Long tagVersion(String tag) {
+        String opaque = tag.trim();
+
+        if (opaque.startsWith("W/")) {
+            opaque = opaque.substring(2);
+        }
+
+        if (opaque.length() < 2 || !opaque.startsWith("\"") || !opaque.endsWith("\"")) {
+            return null;
+        }
+
+        opaque = opaque.substring(1, opaque.length() - 1);
+
+        int dash = opaque.indexOf('-');
+
+        try {
+            return Long.valueOf(dash == -1 ? opaque : opaque.substring(0, dash));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        Matcher matcher = resource_path.matcher(path);
+
+        if (("GET".equals(method) || "HEAD".equals(method)) && matcher.matches()) {
+            if (!notModified(request, response, matcher.group(1), matcher.group(2))) {
+                super.doFilterInternal(request, response, filterChain);
+            }
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    // Answer If-None-Match with 304 if the tag of the stored version matches and return whether it was answered
+    private boolean notModified(HttpServletRequest request, HttpServletResponse response, String type, String id) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        LongFunction<Long> lookup = version_lookups.get(type);
+
+        if (ifNoneMatch == null || lookup == null || request.getParameter("include") != null) {
+            return false;
+        }
+
+        Long version;
+
+        try {
+            version = lookup.apply(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        if (version == null) {
+            return false;
+        }
+
+        String etag = versionTag(version, request.getQueryString());
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+
+        // If-None-Match uses the weak comparison
+        boolean matches = Stream.of(ifNoneMatch.split(",")).map(String::trim)
+            .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+            .anyMatch(tag -> tag.equals("*") || tag.equals(opaque));
+
+        if (matches) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+
+        return matches;
+    }
+
+    // Called with the response Elide returned so an ETag set here is used instead of the hash
+    @Override
+    protected boolean isEligibleForEtag(HttpServletRequest request, HttpServletResponse response,
+                                        int responseStatusCode, InputStream inputStream) {
+        if (!super.isEligibleForEtag(request, response, responseStatusCode, inputStream)) {
+            return false;
+        }
+
+        // An included resource may change without the version changing
+        if (request.getParameter("include") == null) {
+            Long version = version(inputStream);
+
+            if (version != null) {
+                response.setHeader(HttpHeaders.ETAG, versionTag(version, request.getQueryString()));
+            }
+        }
+
+        return true;
+    }
+
+    private static Long version(InputStream inputStream) {
+        try {
+            JsonNode version = MAPPER.readTree(inputStream).path("data").path("attributes").path("version");
+
+            return version.isIntegralNumber() ? version.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.connection.SingleConnectionFactory;
+
+/**
+ * Cache the JMS connection, sessions, and producers of both the Amazon SQS and the Artemis connection factories.
+ * Enabled by setting pass.jms.cache.enabled to true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pass.jms.cache.enabled", havingValue = "true")
+public class JmsCachingConfiguration {
+    /**
+     * Wrap the JMS ConnectionFactory in a MeteredCachingConnectionFactory. A factory which already caches, such
+     * as the one configured by Spring Boot for Artemis, is replaced.
+     *
+     * @param registry where metrics are registered
+     * @param sessionCacheSize number of sessions cached for each acknowledge mode
+     * @return post processor wrapping the ConnectionFactory
+     */
+    @Bean
+    static BeanPostProcessor jmsCachingPostProcessor(ObjectProvider<MeterRegistry> registry,
+            @Value("${pass.jms.cache.session-cache-size}") int sessionCacheSize) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory factory && !(bean instanceof MeteredCachingConnectionFactory)) {
+                    ConnectionFactory target = factory;
+
+                    if (factory instanceof SingleConnectionFactory single
+                        && single.getTargetConnectionFactory() != null) {
+                        target = single.getTargetConnectionFactory();
+                    }
+
+                    return new MeteredCachingConnectionFactory(target, sessionCacheSize, registry.getObject());
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -17,29 +17,48 @@ package org.eclipse.pass.main;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import com.amazon.sqs.javamessaging.ProviderConfiguration;
 import com.amazon.sqs.javamessaging.SQSConnectionFactory;
 import com.yahoo.elide.annotation.LifeCycleHookBinding.Operation;
 import com.yahoo.elide.annotation.LifeCycleHookBinding.TransactionPhase;
+import com.yahoo.elide.core.RequestScope;
 import com.yahoo.elide.core.dictionary.EntityDictionary;
 import com.yahoo.elide.core.dictionary.Injector;
 import com.yahoo.elide.core.lifecycle.LifeCycleHook;
+import com.yahoo.elide.core.request.route.Route;
+import com.yahoo.elide.core.type.ClassType;
 import com.yahoo.elide.core.type.Type;
 import com.yahoo.elide.core.utils.ClassScanner;
 import com.yahoo.elide.core.utils.coerce.CoerceUtil;
 import com.yahoo.elide.jsonapi.JsonApiRequestScope;
 import com.yahoo.elide.jsonapi.JsonApiSettings;
 import com.yahoo.elide.jsonapi.JsonApiSettingsBuilderCustomizer;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Resource;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.jms.ConnectionFactory;
-import jakarta.jms.TextMessage;
 import jakarta.json.Json;
 import jakarta.json.JsonObjectBuilder;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.OptimisticLockException;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.pass.main.outbox.JmsOutboxSender;
+import org.eclipse.pass.main.outbox.Outbox;
+import org.eclipse.pass.main.outbox.OutboxRelay;
+import org.eclipse.pass.main.outbox.OutboxSender;
+import org.eclipse.pass.main.outbox.SqsOutboxSender;
 import org.eclipse.pass.main.repository.DepositRepository;
 import org.eclipse.pass.main.repository.SubmissionRepository;
 import org.eclipse.pass.object.model.Deposit;
@@ -49,6 +68,8 @@ import org.eclipse.pass.object.model.Submission;
 import org.eclipse.pass.object.model.SubmissionEvent;
 import org.eclipse.pass.usertoken.KeyGenerator;
 import org.eclipse.pass.usertoken.TokenFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -56,13 +77,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.jms.core.JmsTemplate;
+import org.springframework.http.HttpHeaders;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 
 /**
  * Configures Elide such that updates to Submission, SubmissionEvent, and Deposit send messages to a JMS broker.
+ * The messages are added to an outbox in the transaction of the update and sent by the OutboxRelay.
+ * <p>
+ * An update only sends a message if it is relevant to the deposit services: a Submission becoming submitted or
+ * a Deposit changing status. Messages about updates to the same object within pass.jms.coalesce-window
+ * milliseconds are coalesced into one. The message for a new object is sent without waiting. Coalescing is off
+ * when the window is 0, which is the default.
  */
 @Configuration
 public class JmsConfiguration {
@@ -76,7 +103,9 @@ public class JmsConfiguration {
     static final String DEPOSIT_KEY = "deposit";
     static final String SUBMISSION_EVENT_KEY = "submission-event";
     static final String TYPE_KEY = "type";
-    static final String MESSAGE_PROPERTY_TYPE_KEY = "type";
+    static final String MESSAGE_PROPERTY_TYPE_KEY = OutboxSender.TYPE_PROPERTY;
+    static final String EMITTED_METRIC = "pass.jms.emitted";
+    static final String SUPPRESSED_METRIC = "pass.jms.suppressed";
 
     @Value("${pass.jms.queue.submission}")
     private String submission_queue;
@@ -90,6 +119,12 @@ public class JmsConfiguration {
     @Value("${aws.sqs.endpoint-override:AWS_SQS_ENDPOINT_OVERRIDE}")
     private String awsSqsEndpointOverride;
 
+    @Value("${pass.jms.coalesce-window}")
+    private long coalesce_window;
+
+    // Keys of objects with a relevant change in a request, recorded before the flush and checked before the commit
+    private final Map<RequestScope, Set<String>> relevant_changes = Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * @return name of queue for Submission object updates
      */
@@ -152,6 +187,31 @@ public class JmsConfiguration {
         return sqsClientBuilder.region(Region.of(awsRegion));
     }
 
+    /**
+     * Send outbox messages to Amazon SQS in batches if configured to use SQS.
+     *
+     * @param awsRegion AWS region
+     * @throws URISyntaxException when failing to configure
+     * @return OutboxSender
+     */
+    @Bean
+    @ConditionalOnProperty(name = "pass.jms.sqs", havingValue = "true")
+    public OutboxSender sqsOutboxSender(@Value("${aws.region}") String awsRegion) throws URISyntaxException {
+        return new SqsOutboxSender(configureSqsBuilder(SqsClient.builder(), awsRegion).build());
+    }
+
+    /**
+     * Send outbox messages to the JMS broker in transacted batches if not configured to use SQS.
+     *
+     * @param connectionFactory JMS connection factory
+     * @return OutboxSender
+     */
+    @Bean
+    @ConditionalOnProperty(name = "pass.jms.sqs", havingValue = "false")
+    public OutboxSender jmsOutboxSender(ConnectionFactory connectionFactory) {
+        return new JmsOutboxSender(connectionFactory);
+    }
+
     @Bean
     JsonApiSettingsBuilderCustomizer jsonApiSettingsBuilderCustomizer() {
         return JsonApiSettings.JsonApiSettingsBuilderSupport::updateStatus200;
@@ -163,67 +223,146 @@ public class JmsConfiguration {
      * @param injector the Injector
      * @param scanner the ClassScanner
      * @param entitiesToExclude the set of entities to exclude
-     * @param jms the JmsTemplate used by the hooks
+     * @param outbox the Outbox the hooks add messages to
+     * @param outboxRelay the OutboxRelay woken after a commit
+     * @param meterRegistry where the counts of emitted and suppressed messages are registered
      * @param userTokenFactory the TokenFactory
      * @param submissionRepository the submission spring data repository
      * @param depositRepository the deposit spring data repository
+     * @param entityManager the EntityManager of the Elide transaction used to check If-Match
      * @return configured EntityDictionary.
      */
     @Bean
     public EntityDictionary buildDictionary(Injector injector, ClassScanner scanner,
                                             @Qualifier("entitiesToExclude") Set<Type<?>> entitiesToExclude,
-                                            JmsTemplate jms,
+                                            Outbox outbox,
+                                            OutboxRelay outboxRelay,
+                                            MeterRegistry meterRegistry,
                                             TokenFactory userTokenFactory,
                                             SubmissionRepository submissionRepository,
-                                            DepositRepository depositRepository) {
+                                            DepositRepository depositRepository,
+                                            EntityManager entityManager) {
 
         EntityDictionary dictionary = new EntityDictionary(new HashMap<>(), new HashMap<>(), injector,
                 CoerceUtil::lookup, entitiesToExclude, scanner, null);
 
-        setupHooks(dictionary, jms, userTokenFactory, submissionRepository, depositRepository);
+        setupHooks(dictionary, outbox, outboxRelay, meterRegistry, userTokenFactory, submissionRepository,
+            depositRepository, entityManager);
 
         return dictionary;
     }
 
-    private void setupHooks(EntityDictionary dictionary, JmsTemplate jms, TokenFactory userTokenFactory,
-                            SubmissionRepository submissionRepository, DepositRepository depositRepository) {
+    // Messages are added to the outbox before the commit and the relay is woken after it
+    private void setupHooks(EntityDictionary dictionary, Outbox outbox, OutboxRelay outboxRelay,
+                            MeterRegistry meterRegistry, TokenFactory userTokenFactory,
+                            SubmissionRepository submissionRepository, DepositRepository depositRepository,
+                            EntityManager entityManager) {
         LifeCycleHook<SubmissionEvent> sub_event_hook = (op, phase, event, scope, changes) -> {
-            send(jms, submission_event_queue, createMessage(event, userTokenFactory), SUBMISSION_EVENT_MESSAGE_TYPE);
+            outbox.add(submission_event_queue, SUBMISSION_EVENT_MESSAGE_TYPE, createMessage(event, userTokenFactory));
+            meterRegistry.counter(EMITTED_METRIC, "type", SUBMISSION_EVENT_MESSAGE_TYPE).increment();
+        };
+
+        LifeCycleHook<Submission> submitted_hook = (op, phase, sub, scope, changes) -> {
+            if (changes.isPresent() && Boolean.TRUE.equals(changes.get().getModified())
+                    && !Boolean.TRUE.equals(changes.get().getOriginal())) {
+                markRelevantChange(scope, sub);
+            }
+        };
+
+        LifeCycleHook<Deposit> deposit_status_hook = (op, phase, dep, scope, changes) -> {
+            if (changes.isPresent() && !Objects.equals(changes.get().getOriginal(), changes.get().getModified())) {
+                markRelevantChange(scope, dep);
+            }
         };
 
         LifeCycleHook<Submission> sub_hook = (op, phase, sub, scope, changes) -> {
             if (sub.getSubmitted() != null && Boolean.TRUE.equals(sub.getSubmitted())) {
-                send(jms, submission_queue, createMessage(sub), SUBMISSION_MESSAGE_TYPE);
+                emit(outbox, meterRegistry, op, scope, sub, submission_queue, SUBMISSION_MESSAGE_TYPE,
+                    createMessage(sub));
             }
         };
 
         LifeCycleHook<Deposit> deposit_hook = (op, phase, dep, scope, changes) -> {
-            send(jms, deposit_queue, createMessage(dep), DEPOSIT_MESSAGE_TYPE);
+            emit(outbox, meterRegistry, op, scope, dep, deposit_queue, DEPOSIT_MESSAGE_TYPE, createMessage(dep));
         };
 
-        dictionary.bindTrigger(SubmissionEvent.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, sub_event_hook,
+        LifeCycleHook<PassEntity> wake_hook = (op, phase, entity, scope, changes) -> {
+            relevant_changes.remove(scope);
+            outboxRelay.wake();
+        };
+
+        dictionary.bindTrigger(Submission.class, "submitted", Operation.UPDATE, TransactionPhase.PREFLUSH,
+                submitted_hook);
+        dictionary.bindTrigger(Deposit.class, "depositStatus", Operation.UPDATE, TransactionPhase.PREFLUSH,
+                deposit_status_hook);
+
+        dictionary.bindTrigger(SubmissionEvent.class, Operation.CREATE, TransactionPhase.PRECOMMIT, sub_event_hook,
                 false);
 
-        dictionary.bindTrigger(Submission.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, sub_hook, false);
-        dictionary.bindTrigger(Submission.class, Operation.UPDATE, TransactionPhase.POSTCOMMIT, sub_hook, false);
+        dictionary.bindTrigger(Submission.class, Operation.CREATE, TransactionPhase.PRECOMMIT, sub_hook, false);
+        dictionary.bindTrigger(Submission.class, Operation.UPDATE, TransactionPhase.PRECOMMIT, sub_hook, false);
+
+        dictionary.bindTrigger(Deposit.class, Operation.CREATE, TransactionPhase.PRECOMMIT, deposit_hook, false);
+        dictionary.bindTrigger(Deposit.class, Operation.UPDATE, TransactionPhase.PRECOMMIT, deposit_hook, false);
 
-        dictionary.bindTrigger(Deposit.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, deposit_hook, false);
-        dictionary.bindTrigger(Deposit.class, Operation.UPDATE, TransactionPhase.POSTCOMMIT, deposit_hook, false);
+        dictionary.bindTrigger(SubmissionEvent.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, wake_hook,
+                false);
+
+        for (Operation op : List.of(Operation.CREATE, Operation.UPDATE)) {
+            dictionary.bindTrigger(Submission.class, op, TransactionPhase.POSTCOMMIT, wake_hook, false);
+            dictionary.bindTrigger(Deposit.class, op, TransactionPhase.POSTCOMMIT, wake_hook, false);
+        }
 
-        setupCheckVersionHooks(dictionary, submissionRepository, depositRepository);
+        setupCheckVersionHooks(dictionary, submissionRepository, depositRepository, entityManager);
     }
 
+    private static String messageKey(PassEntity entity) {
+        return EntityDictionary.getEntityName(ClassType.of(entity.getClass())) + ":" + entity.getId();
+    }
+
+    private void markRelevantChange(RequestScope scope, PassEntity entity) {
+        relevant_changes.computeIfAbsent(scope, s -> ConcurrentHashMap.newKeySet()).add(messageKey(entity));
+    }
+
+    // Add a message unless it is for an update without a relevant change or can be coalesced with a held message
+    private void emit(Outbox outbox, MeterRegistry meterRegistry, Operation op, RequestScope scope,
+                      PassEntity entity, String queue, String type, String text) {
+        String key = messageKey(entity);
+        Set<String> changed = relevant_changes.get(scope);
+
+        if (op == Operation.UPDATE && (changed == null || !changed.remove(key))) {
+            meterRegistry.counter(SUPPRESSED_METRIC, "type", type, "reason", "unchanged").increment();
+        } else if (outbox.add(queue, type, key, text,
+                op == Operation.CREATE ? Duration.ZERO : Duration.ofMillis(coalesce_window))) {
+            meterRegistry.counter(EMITTED_METRIC, "type", type).increment();
+        } else {
+            meterRegistry.counter(SUPPRESSED_METRIC, "type", type, "reason", "coalesced").increment();
+        }
+    }
+
+    // A request with an If-Match header is checked against the version loaded in the transaction instead of the
+    // version in the request. The update of a loaded version fails if another transaction has changed it since.
     private void setupCheckVersionHooks(EntityDictionary dictionary, SubmissionRepository submissionRepository,
-                                        DepositRepository depositRepository) {
+                                        DepositRepository depositRepository, EntityManager entityManager) {
         LifeCycleHook<Submission> submission_version_check = (op, phase, sub, scope, changes) -> {
+            List<String> ifMatch = getIfMatch(scope, sub);
+            if (ifMatch != null) {
+                validateIfMatch(ifMatch, getLoadedVersion(entityManager, sub), sub);
+                return;
+            }
             Long repoSubVersion = submissionRepository.findSubmissionVersionById(sub.getId());
-            Long requestVersion = getRequestVersion((JsonApiRequestScope) scope);
+            Long requestVersion = getRequestVersion((JsonApiRequestScope) scope, sub);
             validateEntityVersions(repoSubVersion, requestVersion, sub);
         };
 
         LifeCycleHook<Deposit> deposit_version_check = (op, phase, dep, scope, changes) -> {
+            List<String> ifMatch = getIfMatch(scope, dep);
+            if (ifMatch != null) {
+                validateIfMatch(ifMatch, getLoadedVersion(entityManager, dep), dep);
+                return;
+            }
             Long repoDepVersion = depositRepository.findDepositVersionById(dep.getId());
-            Long requestVersion = getRequestVersion((JsonApiRequestScope) scope);
+            Long requestVersion = getRequestVersion((JsonApiRequestScope) scope, dep);
             validateEntityVersions(repoDepVersion, requestVersion, dep);
         };
 
@@ -233,8 +372,59 @@ public class JmsConfiguration {
             deposit_version_check, false);
     }
 
-    private Long getRequestVersion(JsonApiRequestScope scope) {
-        Object requestVersion = scope.getJsonApiDocument().getData().getSingleValue().getAttributes().get("version");
+    // Return the If-Match header values of a request for the individual resource or null if there are none
+    private List<String> getIfMatch(RequestScope scope, PassEntity passEntity) {
+        Route route = scope.getRoute();
+
+        if (Objects.isNull(route) || Objects.isNull(route.getHeaders())) {
+            return null;
+        }
+
+        String path = StringUtils.strip(route.getPath(), "/");
+        String resourcePath = EntityDictionary.getEntityName(ClassType.of(passEntity.getClass())) + "/"
+            + passEntity.getId();
+
+        if (!resourcePath.equals(path)) {
+            return null;
+        }
+
+        return route.getHeaders().entrySet().stream().filter(e -> HttpHeaders.IF_MATCH.equalsIgnoreCase(e.getKey()))
+            .map(Map.Entry::getValue).findFirst().orElse(null);
+    }
+
+    // The version the entity was loaded with, which Hibernate checks when the update is flushed
+    private Long getLoadedVersion(EntityManager entityManager, PassEntity passEntity) {
+        EntityEntry entry = entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal()
+            .getEntry(passEntity);
+
+        return Objects.isNull(entry) ? null : (Long) entry.getVersion();
+    }
+
+    private void validateIfMatch(List<String> ifMatch, Long version, PassEntity passEntity) {
+        // The ETag of any representation of the object, including sparse fields, identifies the version
+        boolean matches = ifMatch.stream().flatMap(value -> Stream.of(value.split(","))).map(String::trim)
+            .anyMatch(tag -> tag.equals("*")
+                || (Objects.nonNull(version) && version.equals(EntityTagFilter.tagVersion(tag))));
+
+        if (!matches) {
+            throw new PreconditionFailedException(String.format(
+                "If-Match check failed for %s [ID=%d]. Request If-Match: %s, Stored version: %d",
+                passEntity.getClass().getSimpleName(), passEntity.getId(), String.join(",", ifMatch), version));
+        }
+    }
+
+    private Long getRequestVersion(JsonApiRequestScope scope, PassEntity passEntity) {
+        JsonApiDocument doc = scope.getJsonApiDocument();
+        Collection<Resource> resources = Objects.isNull(doc) || Objects.isNull(doc.getData())
+            ? List.of() : doc.getData().get();
+
+        // A request may update several objects so find the resource for this entity
+        Resource resource = resources.stream().filter(r -> passEntity.getId().toString().equals(r.getId())
+            && EntityDictionary.getEntityName(ClassType.of(passEntity.getClass())).equals(r.getType()))
+            .findFirst().orElse(resources.size() == 1 ? resources.iterator().next() : null);
+
+        Object requestVersion = Objects.isNull(resource) || Objects.isNull(resource.getAttributes())
+            ? null : resource.getAttributes().get("version");
         // The string -> double -> long conversion is needed because json could send number as float
         return Objects.isNull(requestVersion) ? null : Double.valueOf(requestVersion.toString()).longValue();
     }
@@ -290,12 +480,4 @@ public class JmsConfiguration {
         return Json.createObjectBuilder().add(DEPOSIT_KEY, dep.getId().toString()).add(TYPE_KEY,
                 DEPOSIT_MESSAGE_TYPE).build().toString();
     }
-
-    private void send(JmsTemplate jms, String queue, String text, String type) {
-        jms.send(queue, ses -> {
-            TextMessage msg = ses.createTextMessage(text);
-            msg.setStringProperty(MESSAGE_PROPERTY_TYPE_KEY, type);
-            return msg;
-        });
-    }
 }
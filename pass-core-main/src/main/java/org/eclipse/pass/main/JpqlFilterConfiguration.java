@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.util.stream.Collectors;
+
+import com.yahoo.elide.core.filter.Operator;
+import com.yahoo.elide.core.filter.predicates.FilterPredicate;
+import com.yahoo.elide.core.type.ClassType;
+import com.yahoo.elide.datastores.jpql.filter.FilterTranslator;
+import com.yahoo.elide.datastores.jpql.filter.JPQLPredicateGenerator;
+import org.eclipse.pass.object.model.Journal;
+import org.eclipse.pass.object.model.User;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Customize the JPQL generated for RSQL filters.
+ * <p>
+ * By default a hasmember filter on an element collection becomes a MEMBER OF predicate. That is a subquery
+ * correlated with every row of the owning table which cannot use the index on the collection values. The
+ * lookups of users by locator id and journals by ISSN are instead generated as an uncorrelated subquery. An in
+ * filter on the locator ids of users or the ISSNs of journals, matching any of the values, is generated the same
+ * way.
+ */
+@Configuration
+public class JpqlFilterConfiguration {
+    /**
+     * Register the JPQL generators.
+     */
+    public JpqlFilterConfiguration() {
+        FilterTranslator.registerJPQLGenerator(Operator.HASMEMBER, ClassType.of(User.class), "locatorIds",
+            member_of("User", "locatorIds"));
+        FilterTranslator.registerJPQLGenerator(Operator.IN, ClassType.of(User.class), "locatorIds",
+            member_of("User", "locatorIds"));
+        FilterTranslator.registerJPQLGenerator(Operator.HASMEMBER, ClassType.of(Journal.class), "issns",
+            member_of("Journal", "issns"));
+        FilterTranslator.registerJPQLGenerator(Operator.IN, ClassType.of(Journal.class), "issns",
+            member_of("Journal", "issns"));
+    }
+
+    private static JPQLPredicateGenerator member_of(String entity, String field) {
+        return (predicate, alias_generator) -> {
+            // The alias of the field is the alias of the owning entity followed by the field name
+            String field_alias = alias_generator.apply(predicate.getPath());
+            String owner_alias = field_alias.substring(0, field_alias.lastIndexOf('.'));
+            String params = predicate.getParameters().stream().map(FilterPredicate.FilterParameter::getPlaceholder)
+                .collect(Collectors.joining(", "));
+
+            return String.format("%s.id IN (SELECT member_owner.id FROM %s member_owner JOIN member_owner.%s "
+                + "member_value WHERE member_value IN (%s))", owner_alias, entity, field, params);
+        };
+    }
+}
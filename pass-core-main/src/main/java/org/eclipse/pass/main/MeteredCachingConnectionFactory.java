@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+import org.springframework.jms.connection.CachingConnectionFactory;
+
+/**
+ * CachingConnectionFactory which shares one connection and caches sessions and producers, recording how often
+ * sessions are requested and how often they have to be created.
+ * <p>
+ * Consumers are not cached so that a receive does not leave a consumer prefetching messages.
+ */
+public class MeteredCachingConnectionFactory extends CachingConnectionFactory {
+    private final Counter connections_created;
+    private final Counter sessions_requested;
+    private final Counter sessions_created;
+
+    /**
+     * @param target factory creating the connections
+     * @param sessionCacheSize number of sessions cached for each acknowledge mode
+     * @param registry where metrics are registered
+     */
+    public MeteredCachingConnectionFactory(ConnectionFactory target, int sessionCacheSize, MeterRegistry registry) {
+        super(target);
+        setSessionCacheSize(sessionCacheSize);
+        setCacheProducers(true);
+        setCacheConsumers(false);
+
+        this.connections_created = Counter.builder("pass.jms.connections.created")
+            .description("Connections opened to the broker").register(registry);
+        this.sessions_requested = Counter.builder("pass.jms.sessions.requested")
+            .description("Sessions requested from the cache").register(registry);
+        this.sessions_created = Counter.builder("pass.jms.sessions.created")
+            .description("Sessions opened because none were cached").register(registry);
+    }
+
+    @Override
+    protected Connection doCreateConnection() throws JMSException {
+        connections_created.increment();
+        return super.doCreateConnection();
+    }
+
+    @Override
+    protected Session getSession(Connection con, Integer mode) throws JMSException {
+        sessions_requested.increment();
+        return super.getSession(con, mode);
+    }
+
+    @Override
+    protected Session createSession(Connection con, Integer mode) throws JMSException {
+        sessions_created.increment();
+        return super.createSession(con, mode);
+    }
+}
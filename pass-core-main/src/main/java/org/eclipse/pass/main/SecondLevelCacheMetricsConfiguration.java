@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import javax.cache.CacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the cache meters of each region of the Hibernate second-level cache. The hit and miss counts come from
+ * the statistics of the Caffeine caches, enabled in caffeine.conf, so they do not need Hibernate statistics, which
+ * are off unless PASS_CORE_HIBERNATE_STATISTICS is set.
+ */
+@Configuration
+public class SecondLevelCacheMetricsConfiguration {
+    /**
+     * @param entityManagerFactory the EntityManagerFactory whose second-level cache is monitored
+     * @param registry where metrics are registered
+     */
+    public SecondLevelCacheMetricsConfiguration(EntityManagerFactory entityManagerFactory,
+                                                MeterRegistry registry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+            .getRegionFactory();
+
+        // Nothing to monitor if the second-level cache is disabled
+        if (regionFactory instanceof JCacheRegionFactory jcache) {
+            CacheManager cacheManager = jcache.getCacheManager();
+
+            for (String name : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+            }
+        }
+    }
+}
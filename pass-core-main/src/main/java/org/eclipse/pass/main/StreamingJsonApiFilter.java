@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.ElideSettings;
+import com.yahoo.elide.RefreshableElide;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.datastore.DataStoreTransaction;
+import com.yahoo.elide.core.request.EntityProjection;
+import com.yahoo.elide.core.request.Pagination;
+import com.yahoo.elide.core.request.route.Route;
+import com.yahoo.elide.core.security.User;
+import com.yahoo.elide.jsonapi.EntityProjectionMaker;
+import com.yahoo.elide.jsonapi.JsonApi;
+import com.yahoo.elide.jsonapi.JsonApiRequestScope;
+import com.yahoo.elide.jsonapi.JsonApiSettings;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Resource;
+import com.yahoo.elide.spring.security.AuthenticationUser;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter which streams large pages of JSON API collections instead of building the whole response in memory.
+ * <p>
+ * A GET of a collection without includes and with a page[limit] larger than pass.json-api.streaming.chunk-size
+ * is loaded in chunks of that size. Each chunk is written to the response and the persistence context is cleared,
+ * so that loaded objects can be released, before the next chunk is loaded. All chunks are loaded in one read only
+ * repeatable read transaction so that they see the same snapshot and are sorted with id as the final sort key so
+ * that they see the same order. The response is the same document Elide would return. Other requests are passed on
+ * to Elide.
+ * <p>
+ * Streaming is enabled by setting pass.json-api.streaming.enabled to true. A database connection is held for as
+ * long as the response is being written.
+ * <p>
+ * Errors in the first chunk are handled by passing the request on to Elide. After that the response has been
+ * committed and an error aborts it.
+ */
+@Component
+public class StreamingJsonApiFilter extends OncePerRequestFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingJsonApiFilter.class);
+
+    private static final String PAGE_OFFSET = "page[offset]";
+    private static final String PAGE_LIMIT = "page[limit]";
+    private static final String PAGE_TOTALS = "page[totals]";
+
+    private final RefreshableElide refreshableElide;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final Pattern collection_path;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    /**
+     * @param refreshableElide Elide instance
+     * @param transactionManager used to load all chunks in one transaction
+     * @param entityManager EntityManager of the Elide transactions which is cleared between chunks
+     * @param dataPath path of the JSON API endpoint
+     * @param enabled whether large pages are streamed
+     * @param chunkSize number of objects loaded at a time
+     */
+    public StreamingJsonApiFilter(RefreshableElide refreshableElide,
+                                  PlatformTransactionManager transactionManager, EntityManager entityManager,
+                                  @Value("${elide.json-api.path}") String dataPath,
+                                  @Value("${pass.json-api.streaming.enabled}") boolean enabled,
+                                  @Value("${pass.json-api.streaming.chunk-size}") int chunkSize) {
+        this.refreshableElide = refreshableElide;
+        this.transactionManager = transactionManager;
+        this.entityManager = entityManager;
+        this.collection_path = Pattern.compile("^" + Pattern.quote(dataPath) + "/([^/]+)/?$");
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    private String get_type(HttpServletRequest request) {
+        Matcher matcher = collection_path.matcher(request.getRequestURI().substring(
+            request.getContextPath().length()));
+
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static int get_int(HttpServletRequest request, String name, int def) {
+        String value = request.getParameter(name);
+
+        try {
+            return value == null ? def : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !request.getMethod().equals("GET") || request.getParameter("include") != null
+            || request.getParameter("page[number]") != null || request.getParameter("page[size]") != null) {
+            return true;
+        }
+
+        String type = get_type(request);
+        ElideSettings settings = refreshableElide.getElide().getElideSettings();
+
+        if (type == null || settings.getEntityDictionary().getEntityClass(type,
+                settings.getEntityDictionary().getApiVersions().iterator().next()) == null) {
+            return true;
+        }
+
+        int limit = get_int(request, PAGE_LIMIT, 0);
+
+        // Leave validation of the page to Elide
+        return limit <= chunkSize || limit > settings.getMaxPageSize() || get_int(request, PAGE_OFFSET, 0) < 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Elide elide = refreshableElide.getElide();
+        User user = new AuthenticationUser(SecurityContextHolder.getContext().getAuthentication());
+        String path = "/" + get_type(request);
+
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        request.getParameterMap().forEach((k, v) -> params.put(k, List.of(v)));
+
+        // Chunks must see the objects in a stable order
+        params.put("sort", List.of(stable_sort(request.getParameter("sort"))));
+
+        int offset = get_int(request, PAGE_OFFSET, 0);
+        int limit = get_int(request, PAGE_LIMIT, 0);
+
+        // The Elide read transaction of each chunk joins this one
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        definition.setReadOnly(true);
+
+        TransactionStatus status = transactionManager.getTransaction(definition);
+
+        try {
+            Chunk chunk;
+
+            try {
+                chunk = load_chunk(elide, path, params, user, offset, Math.min(chunkSize, limit), true);
+            } catch (RuntimeException e) {
+                LOG.debug("Failed to stream {}, passing request on", path, e);
+                transactionManager.rollback(status);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            write(elide, response, chunk, path, params, user, offset, limit);
+            transactionManager.commit(status);
+        } finally {
+            if (!status.isCompleted()) {
+                transactionManager.rollback(status);
+            }
+        }
+    }
+
+    // Add id as the final sort key so objects with the same value of the requested sort keys keep their order
+    private static String stable_sort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return "id";
+        }
+
+        boolean has_id = Stream.of(sort.split(",")).map(String::trim).anyMatch(k -> k.equals("id")
+            || k.equals("-id") || k.equals("+id"));
+
+        return has_id ? sort : sort + ",id";
+    }
+
+    private void write(Elide elide, HttpServletResponse response, Chunk chunk, String path,
+                       Map<String, List<String>> params, User user, int offset, int limit) throws IOException {
+        Map<String, Object> meta = new HashMap<>();
+
+        if (chunk.pagination != null) {
+            meta.put("page", page_meta(chunk.pagination, offset, limit));
+        }
+
+        meta.putAll(chunk.metadata);
+
+        ObjectMapper mapper = elide.getSettings(JsonApiSettings.class).getJsonApiMapper().getObjectMapper();
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(JsonApi.MEDIA_TYPE);
+
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(response.getOutputStream())) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("data");
+
+            int written = 0;
+
+            while (true) {
+                for (Resource resource : chunk.resources) {
+                    writer.writeValue(gen, resource);
+                }
+
+                written += chunk.resources.size();
+
+                if (chunk.resources.size() < chunk.limit || written >= limit) {
+                    break;
+                }
+
+                gen.flush();
+                entityManager.clear();
+
+                chunk = load_chunk(elide, path, params, user, offset + written,
+                    Math.min(chunkSize, limit - written), false);
+                meta.putAll(chunk.metadata);
+            }
+
+            gen.writeEndArray();
+
+            if (!meta.isEmpty()) {
+                gen.writeFieldName("meta");
+                writer.writeValue(gen, meta);
+            }
+
+            gen.writeEndObject();
+        }
+    }
+
+    // Page meta data matching what Elide returns
+    private Map<String, Number> page_meta(Pagination pagination, int offset, int limit) {
+        Map<String, Number> result = new HashMap<>();
+
+        result.put("number", (offset / limit) + 1);
+        result.put("limit", limit);
+
+        if (pagination.returnPageTotals() && pagination.getPageTotals() != null) {
+            long total = pagination.getPageTotals();
+
+            result.put("totalPages", total / limit + ((total % limit) > 0 ? 1 : 0));
+            result.put("totalRecords", total);
+        }
+
+        return result;
+    }
+
+    private Chunk load_chunk(Elide elide, String path, Map<String, List<String>> params, User user, int offset,
+                             int limit, boolean first) throws IOException {
+        ElideSettings settings = elide.getElideSettings();
+        Map<String, List<String>> chunk_params = new LinkedHashMap<>(params);
+
+        chunk_params.put(PAGE_OFFSET, List.of(String.valueOf(offset)));
+        chunk_params.put(PAGE_LIMIT, List.of(String.valueOf(limit)));
+
+        if (!first) {
+            chunk_params.remove(PAGE_TOTALS);
+        }
+
+        Route route = Route.builder().baseUrl(settings.getBaseUrl()).path(path).parameters(chunk_params)
+            .apiVersion(settings.getEntityDictionary().getApiVersions().iterator().next()).build();
+
+        try (DataStoreTransaction tx = elide.getDataStore().beginReadTransaction()) {
+            JsonApiRequestScope scope = JsonApiRequestScope.builder().route(route).user(user)
+                .dataStoreTransaction(tx).requestId(UUID.randomUUID()).elideSettings(settings)
+                .jsonApiDocument(new JsonApiDocument()).build();
+
+            EntityProjection projection = new EntityProjectionMaker(settings.getEntityDictionary(), scope)
+                .parsePath(path);
+
+            List<Resource> resources = new ArrayList<>(limit);
+
+            PersistentResource.loadRecords(projection, Collections.emptyList(), scope)
+                .blockingForEach(r -> resources.add(r.toResource()));
+
+            tx.preCommit(scope);
+            scope.runQueuedPreSecurityTriggers();
+            scope.getPermissionExecutor().executeCommitChecks();
+            tx.flush(scope);
+            tx.commit(scope);
+
+            Map<String, Object> metadata = new HashMap<>();
+            scope.getMetadataFields().forEach(f -> scope.getMetadataField(f).ifPresent(v -> metadata.put(f, v)));
+
+            return new Chunk(resources, limit, first ? projection.getPagination() : null, metadata);
+        }
+    }
+
+    private record Chunk(List<Resource> resources, int limit, Pagination pagination, Map<String, Object> metadata) {
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Sends a batch of messages in a single transacted JMS session so the broker receives them with one commit.
+ */
+public class JmsOutboxSender implements OutboxSender {
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * @param connectionFactory connection factory of the broker
+     */
+    public JmsOutboxSender(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Set<Long> send(String queue, List<OutboxMessage> messages) throws JMSException {
+        try (Connection con = connectionFactory.createConnection();
+                Session session = con.createSession(true, Session.SESSION_TRANSACTED)) {
+            try (MessageProducer producer = session.createProducer(session.createQueue(queue))) {
+                for (OutboxMessage m : messages) {
+                    TextMessage msg = session.createTextMessage(m.text());
+                    msg.setStringProperty(TYPE_PROPERTY, m.type());
+                    producer.send(msg);
+                }
+
+                session.commit();
+            } catch (JMSException e) {
+                session.rollback();
+                throw e;
+            }
+        }
+
+        return messages.stream().map(OutboxMessage::id).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Table of messages waiting to be sent to JMS queues.
+ * <p>
+ * Messages are added in the transaction of the change they describe, so a message is only sent if the change is
+ * committed and is not lost if the broker is unavailable. The Elide JPA transaction is managed by Spring, so
+ * statements of the JdbcTemplate run in it. The OutboxRelay sends the messages and removes them.
+ * <p>
+ * A message with a key may be held for a window so that later messages with the same key are coalesced into it.
+ */
+@Component
+public class Outbox {
+    static final String TABLE = "pass_outbox";
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * @param jdbc used to add messages
+     */
+    public Outbox(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Add a message to the outbox in the current transaction.
+     *
+     * @param queue name of the destination queue
+     * @param type value of the type message property
+     * @param text text of the message
+     */
+    public void add(String queue, String type, String text) {
+        add(queue, type, null, text, Duration.ZERO);
+    }
+
+    /**
+     * Add a message to the outbox in the current transaction unless a message with the same key is being held.
+     * The message is held for the window before being sent.
+     *
+     * @param queue name of the destination queue
+     * @param type value of the type message property
+     * @param key identifies messages which may be coalesced or null
+     * @param text text of the message
+     * @param window time to hold the message
+     * @return whether the message was added
+     */
+    public boolean add(String queue, String type, String key, String text, Duration window) {
+        Instant now = Instant.now();
+
+        // A held message has not been read by the relay and so will be sent after this change is committed
+        if (key != null && !window.isZero()) {
+            Integer held = jdbc.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE queue = ? AND "
+                + "message_key = ? AND next_attempt > ?", Integer.class, queue, key, Timestamp.from(now));
+
+            if (held != null && held > 0) {
+                return false;
+            }
+        }
+
+        jdbc.update("INSERT INTO " + TABLE + " (queue, message_type, message_key, body, created, attempts, "
+            + "next_attempt) VALUES (?, ?, ?, ?, ?, 0, ?)", queue, type, key, text, Timestamp.from(now),
+            Timestamp.from(now.plus(window)));
+
+        return true;
+    }
+}
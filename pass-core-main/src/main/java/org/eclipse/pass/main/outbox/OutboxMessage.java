@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.time.Instant;
+
+/**
+ * Message waiting in the outbox to be sent to a JMS queue.
+ *
+ * @param id id of the outbox row
+ * @param queue name of the destination queue
+ * @param type value of the type message property
+ * @param text text of the message
+ * @param attempts number of failed attempts to send the message
+ * @param created when the message was added
+ */
+public record OutboxMessage(long id, String queue, String type, String text, int attempts, Instant created) {
+}
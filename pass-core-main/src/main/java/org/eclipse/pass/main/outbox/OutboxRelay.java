@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sends the messages in the outbox and removes them once the broker has accepted them.
+ * <p>
+ * The outbox is drained every pass.jms.outbox.poll-interval milliseconds and when woken after a commit. Messages
+ * are locked while being sent so several instances may drain the outbox. A message which fails to send is retried
+ * with an exponential backoff starting at pass.jms.outbox.retry-delay up to pass.jms.outbox.max-retry-delay
+ * milliseconds. Messages are sent at least once. A message may be sent again if the relay fails after the broker
+ * accepted it.
+ */
+@Component
+public class OutboxRelay implements DisposableBean {
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_MESSAGES = "SELECT id, queue, message_type, body, attempts, created FROM "
+        + Outbox.TABLE + " WHERE next_attempt <= ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final OutboxSender sender;
+    private final MeterRegistry registry;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Timer send_timer;
+    private final Timer lag_timer;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean wake_pending = new AtomicBoolean();
+
+    /**
+     * @param jdbc used to read and remove messages
+     * @param transactionManager used to lock messages while they are sent
+     * @param sender sends the messages
+     * @param registry where metrics are registered
+     * @param batchSize maximum number of messages read at a time
+     * @param retryDelay milliseconds to wait before the first retry of a message
+     * @param maxRetryDelay maximum milliseconds to wait before retrying a message
+     */
+    public OutboxRelay(JdbcTemplate jdbc, PlatformTransactionManager transactionManager, OutboxSender sender,
+                       MeterRegistry registry,
+                       @Value("${pass.jms.outbox.batch-size}") int batchSize,
+                       @Value("${pass.jms.outbox.retry-delay}") long retryDelay,
+                       @Value("${pass.jms.outbox.max-retry-delay}") long maxRetryDelay) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.sender = sender;
+        this.registry = registry;
+        this.batchSize = batchSize;
+        this.retryDelay = Duration.ofMillis(retryDelay);
+        this.maxRetryDelay = Duration.ofMillis(maxRetryDelay);
+        this.send_timer = Timer.builder("pass.outbox.send").description("Time to send a batch to the broker")
+            .register(registry);
+        this.lag_timer = Timer.builder("pass.outbox.lag")
+            .description("Time between adding a message to the outbox and sending it").register(registry);
+
+        Gauge.builder("pass.outbox.pending", this, OutboxRelay::count_pending)
+            .description("Number of messages in the outbox").register(registry);
+    }
+
+    private double count_pending() {
+        try {
+            Long count = jdbc.queryForObject("SELECT COUNT(*) FROM " + Outbox.TABLE, Long.class);
+            return count == null ? Double.NaN : count;
+        } catch (DataAccessException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Drain the outbox soon without waiting for the next poll. Calls made while a drain is pending are coalesced.
+     */
+    public void wake() {
+        if (wake_pending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wake_pending.set(false);
+                poll();
+            });
+        }
+    }
+
+    /**
+     * Drain the outbox, logging any error.
+     */
+    @Scheduled(fixedDelayString = "${pass.jms.outbox.poll-interval}")
+    public void poll() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            LOG.error("Failed to relay outbox messages", e);
+        }
+    }
+
+    /**
+     * Send every message in the outbox which is due.
+     *
+     * @return number of messages sent
+     */
+    public synchronized int drain() {
+        int sent = 0;
+
+        while (true) {
+            int[] result = tx.execute(status -> relay_batch());
+
+            sent += result[1];
+
+            if (result[0] < batchSize) {
+                return sent;
+            }
+        }
+    }
+
+    // Return the number of messages read and the number sent
+    private int[] relay_batch() {
+        Instant now = Instant.now();
+
+        List<OutboxMessage> messages = jdbc.query(SELECT_MESSAGES, (rs, i) -> new OutboxMessage(rs.getLong(1),
+            rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5), rs.getTimestamp(6).toInstant()),
+            Timestamp.from(now), batchSize);
+
+        Map<String, List<OutboxMessage>> by_queue = new LinkedHashMap<>();
+        messages.forEach(m -> by_queue.computeIfAbsent(m.queue(), q -> new ArrayList<>()).add(m));
+
+        int sent = 0;
+
+        for (Map.Entry<String, List<OutboxMessage>> entry : by_queue.entrySet()) {
+            String queue = entry.getKey();
+            Set<Long> sent_ids;
+
+            try {
+                sent_ids = send_timer.recordCallable(() -> sender.send(queue, entry.getValue()));
+            } catch (Exception e) {
+                LOG.warn("Failed to send {} messages to {}", entry.getValue().size(), queue, e);
+                sent_ids = Set.of();
+            }
+
+            List<Object[]> sent_args = new ArrayList<>();
+            List<Object[]> failed_args = new ArrayList<>();
+
+            for (OutboxMessage m : entry.getValue()) {
+                if (sent_ids.contains(m.id())) {
+                    sent_args.add(new Object[] {m.id()});
+                    lag_timer.record(Duration.between(m.created(), Instant.now()));
+                } else {
+                    failed_args.add(new Object[] {m.attempts() + 1,
+                        Timestamp.from(now.plus(backoff(m.attempts() + 1))), m.id()});
+                }
+            }
+
+            jdbc.batchUpdate("DELETE FROM " + Outbox.TABLE + " WHERE id = ?", sent_args);
+            jdbc.batchUpdate("UPDATE " + Outbox.TABLE + " SET attempts = ?, next_attempt = ? WHERE id = ?",
+                failed_args);
+
+            Counter.builder("pass.outbox.sent").tag("queue", queue).register(registry).increment(sent_args.size());
+            Counter.builder("pass.outbox.failed").tag("queue", queue).register(registry)
+                .increment(failed_args.size());
+
+            sent += sent_args.size();
+        }
+
+        return new int[] {messages.size(), sent};
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    /**
+     * Stop the thread used when woken.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
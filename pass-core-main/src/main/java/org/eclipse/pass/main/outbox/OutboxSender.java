@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sends a batch of outbox messages to a queue.
+ */
+public interface OutboxSender {
+    /**
+     * Name of the message property holding the message type.
+     */
+    String TYPE_PROPERTY = "type";
+
+    /**
+     * Send messages to a queue. Messages which are not sent are retried later.
+     *
+     * @param queue name of the queue
+     * @param messages messages to send in order
+     * @return ids of the messages which were sent
+     * @throws Exception if no message could be sent
+     */
+    Set<Long> send(String queue, List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+/**
+ * Sends messages to Amazon SQS with SendMessageBatch. The message type is sent as a string message attribute,
+ * which the SQS JMS client presents as a string message property.
+ */
+public class SqsOutboxSender implements OutboxSender {
+    private static final Logger LOG = LoggerFactory.getLogger(SqsOutboxSender.class);
+
+    /**
+     * Maximum number of messages SQS accepts in one batch.
+     */
+    public static final int MAX_BATCH_SIZE = 10;
+
+    private final SqsClient sqsClient;
+    private final Map<String, String> queue_urls = new ConcurrentHashMap<>();
+
+    /**
+     * @param sqsClient SQS client
+     */
+    public SqsOutboxSender(SqsClient sqsClient) {
+        this.sqsClient = sqsClient;
+    }
+
+    @Override
+    public Set<Long> send(String queue, List<OutboxMessage> messages) {
+        String url = queue_urls.computeIfAbsent(queue, q -> sqsClient.getQueueUrl(
+            GetQueueUrlRequest.builder().queueName(q).build()).queueUrl());
+        Set<Long> result = new HashSet<>();
+
+        for (int i = 0; i < messages.size(); i += MAX_BATCH_SIZE) {
+            List<SendMessageBatchRequestEntry> entries = messages.subList(i,
+                Math.min(i + MAX_BATCH_SIZE, messages.size())).stream().map(m ->
+                    SendMessageBatchRequestEntry.builder().id(String.valueOf(m.id())).messageBody(m.text())
+                        .messageAttributes(Map.of(TYPE_PROPERTY, MessageAttributeValue.builder()
+                            .dataType("String").stringValue(m.type()).build())).build()).toList();
+
+            SendMessageBatchResponse response;
+
+            try {
+                response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder().queueUrl(url)
+                    .entries(entries).build());
+            } catch (SdkException e) {
+                if (result.isEmpty()) {
+                    throw e;
+                }
+
+                // Report the batches already sent, the rest are retried
+                LOG.warn("Failed to send batch to {}", queue, e);
+                break;
+            }
+
+            response.successful().forEach(e -> result.add(Long.valueOf(e.id())));
+
+            for (BatchResultErrorEntry e : response.failed()) {
+                LOG.warn("Failed to send message {} to {}: {} {}", e.id(), queue, e.code(), e.message());
+            }
+        }
+
+        return result;
+    }
+}
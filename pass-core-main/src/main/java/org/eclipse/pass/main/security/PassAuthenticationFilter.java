@@ -16,18 +16,31 @@
 package org.eclipse.pass.main.security;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.yahoo.elide.RefreshableElide;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.eclipse.pass.object.PassClient;
-import org.eclipse.pass.object.PassClientResult;
 import org.eclipse.pass.object.PassClientSelector;
 import org.eclipse.pass.object.RSQL;
 import org.eclipse.pass.object.model.PassEntity;
@@ -43,6 +56,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.saml2.provider.service.authentication.Saml2AuthenticatedPrincipal;
+import org.springframework.security.saml2.provider.service.authentication.Saml2Authentication;
 import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
 import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
@@ -53,11 +67,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * created if it does not exist and otherwise updated to reflect the information
  * provided by the IDP. The PASS user name becomes the name of the Principal.
  * <p>
+ * Concurrent logins of the same user on a node wait on a lock striped by the
+ * durable locator id of the user. Logins on different nodes are detected by the
+ * unique constraint on user locator ids. The login which fails to create the user
+ * then updates the user created by the other.
+ * <p>
  * If the request has not been authenticated through SAML, the mapping step is skipped.
  * In any case, the request is passed down the chain.
  * <p>
  * A cache of maximum size pass.auth.max-cache-size of recent authentications is
- * maintained. It is cleared every pass.auth.cache-duration minutes.
+ * maintained. An authentication is cached for pass.auth.cache-duration minutes.
+ * The cache is keyed by the SAML response of a login, so the PASS user is only
+ * looked up once per login. Hit rate is reported as the pass.auth.cache metrics
+ * and time spent mapping users as pass.auth.filter.
  */
 @Component
 public class PassAuthenticationFilter extends OncePerRequestFilter {
@@ -67,6 +89,9 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger LOG = LoggerFactory.getLogger(PassAuthenticationFilter.class);
 
+    private static final int LOCK_STRIPES = 64;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
     private final SecurityContextHolderStrategy securityContextHolderStrategy =
         SecurityContextHolder.getContextHolderStrategy();
     private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
@@ -75,6 +100,10 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
 
     private PassAuthenticationFilterConfiguration config;
 
+    private final Cache<String, PassAuthentication> auth_cache;
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+    private final Timer filter_timer;
+
     /**
      * Attributes about a user provided by the IDP.
      */
@@ -123,15 +152,65 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
     /**
      * @param refreshableElide RefreshableElide
      * @param config PassAuthenticationFilterConfiguration
+     * @param registry MeterRegistry where cache and filter metrics are registered
      */
-    public PassAuthenticationFilter(RefreshableElide refreshableElide, PassAuthenticationFilterConfiguration config) {
+    public PassAuthenticationFilter(RefreshableElide refreshableElide, PassAuthenticationFilterConfiguration config,
+                                    MeterRegistry registry) {
         this.config = config;
         this.elide = refreshableElide;
+        this.auth_cache = Caffeine.newBuilder().maximumSize(config.getMaxCacheSize())
+            .expireAfterWrite(Duration.ofMinutes(config.getCacheDuration())).recordStats().build();
+        this.filter_timer = Timer.builder("pass.auth.filter").description("Time spent mapping a SAML user")
+            .register(registry);
+
+        CaffeineCacheMetrics.monitor(registry, auth_cache, "pass.auth.cache");
+
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @param locator_id durable locator id of a user
+     * @return lock held while provisioning users with the locator id
+     */
+    Lock getLock(String locator_id) {
+        return locks[Math.floorMod(locator_id.hashCode(), locks.length)];
+    }
+
+    // A login is identified by its SAML response, which contains a unique assertion
+    private static String cache_key(Authentication auth, Saml2AuthenticatedPrincipal principal) {
+        String login = auth instanceof Saml2Authentication saml ? saml.getSaml2Response()
+            : String.join(",", principal.getSessionIndexes());
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(login.getBytes(StandardCharsets.UTF_8));
+
+            return principal.getName() + ":" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Return the cached authentication of a login or authenticate
+    private Authentication cached_authenticate(Authentication auth, Saml2AuthenticatedPrincipal principal)
+            throws AuthenticationException, IOException {
+        try {
+            return auth_cache.get(cache_key(auth, principal), k -> {
+                try {
+                    return authenticate(principal);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     // Do authentication and return Authentication object representing success.
     // Throw AuthenticationException if there is trouble with the user credentials
-    private Authentication authenticate(Saml2AuthenticatedPrincipal principal)
+    private PassAuthentication authenticate(Saml2AuthenticatedPrincipal principal)
             throws AuthenticationException, IOException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Principal: " + principal.getName());
@@ -142,24 +221,59 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
         }
 
         User user = parseUser(principal.getAttributes());
-        create_or_update_pass_user(user);
+        createOrUpdatePassUser(user);
 
         return new PassAuthentication(user);
     }
 
-    // Ensure that only one user is created
-    private synchronized void create_or_update_pass_user(User user) throws IOException {
+    /**
+     * Create the PASS user or update it to match the user from the IDP.
+     *
+     * @param user user from the IDP
+     * @throws IOException on failure
+     */
+    void createOrUpdatePassUser(User user) throws IOException {
+        // The first locator id is durable
+        Lock lock = getLock(user.getLocatorIds().get(0));
+        lock.lock();
+
         try (PassClient pass_client = PassClient.newInstance(elide)) {
             User pass_user = find_pass_user(pass_client, user);
 
             if (pass_user == null) {
-                pass_client.createObject(user);
+                try {
+                    pass_client.createObject(user);
+
+                    LOG.info("Created user: {}", user.getUsername());
+                    return;
+                } catch (IOException e) {
+                    if (!is_unique_violation(e)) {
+                        throw e;
+                    }
+
+                    // Another node created the user
+                    pass_user = find_pass_user(pass_client, user);
+
+                    if (pass_user == null) {
+                        throw e;
+                    }
+                }
+            }
 
-                LOG.info("Created user: {}", user.getUsername());
-            } else {
-                update_pass_user(pass_client, user, pass_user);
+            update_pass_user(pass_client, user, pass_user);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean is_unique_violation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && UNIQUE_VIOLATION_SQL_STATE.equals(sql.getSQLState())) {
+                return true;
             }
         }
+
+        return false;
     }
 
     private void update_pass_user(PassClient pass_client, User shib_user, User pass_user) throws IOException {
@@ -211,16 +325,22 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    // Find the user matching the highest priority locator id with a single query
     private User find_pass_user(PassClient pass_client, User user) throws IOException {
+        List<String> locator_ids = user.getLocatorIds();
+
         PassClientSelector<User> selector = new PassClientSelector<>(User.class);
+        selector.setFilter(RSQL.in("locatorIds", locator_ids.toArray(String[]::new)));
+        selector.setTotals(false);
+
+        List<User> matches = pass_client.selectObjects(selector).getObjects();
 
-        for (String locator_id : user.getLocatorIds()) {
-            selector.setFilter(RSQL.hasMember("locatorIds", locator_id));
-            PassClientResult<User> result = pass_client.selectObjects(selector);
+        for (String locator_id : locator_ids) {
+            List<User> users = matches.stream().filter(u -> u.getLocatorIds().contains(locator_id)).toList();
 
-            if (result.getTotal() == 1) {
-                return result.getObjects().get(0);
-            } else if (result.getTotal() > 1) {
+            if (users.size() == 1) {
+                return users.get(0);
+            } else if (users.size() > 1) {
                 throw new BadCredentialsException("Found multiple users matching locator: " + locator_id);
             }
         }
@@ -343,10 +463,12 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
         Authentication auth = securityContextHolderStrategy.getContext().getAuthentication();
 
         if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof Saml2AuthenticatedPrincipal) {
+            Timer.Sample sample = Timer.start();
+
             try {
                 SecurityContext context = securityContextHolderStrategy.createEmptyContext();
 
-                context.setAuthentication(authenticate((Saml2AuthenticatedPrincipal) auth.getPrincipal()));
+                context.setAuthentication(cached_authenticate(auth, (Saml2AuthenticatedPrincipal) auth.getPrincipal()));
 
                 securityContextHolderStrategy.setContext(context);
                 securityContextRepository.saveContext(context, request, response);
@@ -358,6 +480,8 @@ public class PassAuthenticationFilter extends OncePerRequestFilter {
 
                 response.setStatus(HttpStatus.BAD_REQUEST.value());
                 return;
+            } finally {
+                sample.stop(filter_timer);
             }
         }
 
@@ -14,6 +14,12 @@ public class PassAuthenticationFilterConfiguration {
     // Map attributes to asserting party key
     private Map<PassAuthenticationFilter.Attribute, String> attribute_map;
 
+    // Maximum number of cached authentications
+    private long max_cache_size = 1000;
+
+    // Minutes an authentication is cached
+    private long cache_duration = 5;
+
     /**
      * @return Mapping of user attributes to keys in SAML response
      */
@@ -29,4 +35,32 @@ public class PassAuthenticationFilterConfiguration {
     public void setAttributeMap(Map<PassAuthenticationFilter.Attribute, String> attribute_map) {
         this.attribute_map = attribute_map;
     }
+
+    /**
+     * @return Maximum number of cached authentications
+     */
+    public long getMaxCacheSize() {
+        return max_cache_size;
+    }
+
+    /**
+     * @param max_cache_size Maximum number of cached authentications
+     */
+    public void setMaxCacheSize(long max_cache_size) {
+        this.max_cache_size = max_cache_size;
+    }
+
+    /**
+     * @return Minutes an authentication is cached
+     */
+    public long getCacheDuration() {
+        return cache_duration;
+    }
+
+    /**
+     * @param cache_duration Minutes an authentication is cached
+     */
+    public void setCacheDuration(long cache_duration) {
+        this.cache_duration = cache_duration;
+    }
 }
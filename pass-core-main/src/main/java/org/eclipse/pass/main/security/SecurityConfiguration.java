@@ -102,9 +102,13 @@ public class SecurityConfiguration {
 
         // Ensure that favicon.ico requests are public so they do not interfere with SAML login.
         // Make /error public so problems that occur before authentication are not hidden.
+        // Make the actuator health endpoint public so it can be used by health probes.
+        // Other actuator endpoints are only available to the backend user.
         // All other requests must be authorized.
         http.authorizeHttpRequests((authorizeHttpRequests) ->
             authorizeHttpRequests.requestMatchers("/error", "/favicon.ico", "/app/favicon.ico").permitAll().
+                requestMatchers("/actuator/health", "/actuator/health/**").permitAll().
+                requestMatchers("/actuator/**").hasRole("BACKEND").
                 anyRequest().authenticated());
 
         // Prevent a continue parameter from being added after login
@@ -0,0 +1,19 @@
+-- Add indices for lookups done by the services and for loading submission and deposit relationships
+
+-- User.username lookup by the policy and user services
+CREATE INDEX pass_user_username_ix ON public.pass_user (username);
+
+-- Journal.journalName lookup by the DOI service
+CREATE INDEX pass_journal_journalname_ix ON public.pass_journal (journalname);
+
+-- Policy.title lookup by the policy service
+CREATE INDEX pass_policy_title_ix ON public.pass_policy (title);
+
+CREATE INDEX pass_submission_grants_submission_ix ON public.pass_submission_grants (submission_id);
+CREATE INDEX pass_submission_grants_grant_ix ON public.pass_submission_grants (grants_id);
+
+CREATE INDEX pass_submission_repositories_submission_ix ON public.pass_submission_repositories (submission_id);
+CREATE INDEX pass_submission_repositories_repository_ix ON public.pass_submission_repositories (repositories_id);
+
+CREATE INDEX pass_deposit_repository_ix ON public.pass_deposit (repository_id);
+CREATE INDEX pass_deposit_repositorycopy_ix ON public.pass_deposit (repositorycopy_id);
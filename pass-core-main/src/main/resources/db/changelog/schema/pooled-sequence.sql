@@ -0,0 +1,5 @@
+-- Ids are allocated in blocks of 50 using the pooled-lo optimizer.
+-- Each nextval returns the first id of a block which is above every id already handed out,
+-- so the increment can be changed while nodes using the old allocation size are still running.
+-- The increment must match PassEntity.ID_ALLOCATION_SIZE.
+ALTER SEQUENCE public.hibernate_sequence INCREMENT BY 50;
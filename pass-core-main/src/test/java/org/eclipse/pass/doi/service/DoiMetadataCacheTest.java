@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.doi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import org.eclipse.pass.main.SimpleIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Test the DOI metadata cache with caches acting as separate nodes sharing the database.
+ */
+public class DoiMetadataCacheTest extends SimpleIntegrationTest {
+    private static final Duration CROSSREF_TTL = Duration.ofHours(1);
+    private static final Duration UNPAYWALL_TTL = Duration.ofDays(1);
+    private static final Duration NOT_FOUND_TTL = Duration.ofMinutes(10);
+    private static final Duration STALE = Duration.ofMinutes(30);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final ExternalDoiService crossref = service("Crossref");
+    private final ExternalDoiService unpaywall = service("Unpaywall");
+    private final TestClock clock = new TestClock();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private MeterRegistry registry;
+    private DoiMetadataCache node1;
+    private DoiMetadataCache node2;
+    private String doi;
+
+    private static class TestClock extends Clock {
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static ExternalDoiService service(String name) {
+        return new ExternalDoiService() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String baseUrl() {
+                return "http://localhost/";
+            }
+
+            @Override
+            public Map<String, String> parameterMap() {
+                return null;
+            }
+
+            @Override
+            public Map<String, String> headerMap() {
+                return null;
+            }
+
+            @Override
+            public JsonObject processObject(JsonObject object) {
+                return object;
+            }
+        };
+    }
+
+    private static JsonObject metadata(String title) {
+        return Json.createObjectBuilder().add("title", title).build();
+    }
+
+    private static JsonObject error(int code) {
+        return Json.createObjectBuilder().add("error", "moo").add(ExternalDoiServiceConnector.HTTP_STATUS_CODE, code)
+            .build();
+    }
+
+    private DoiMetadataCache new_node() {
+        DoiMetadataCacheConfiguration config = new DoiMetadataCacheConfiguration();
+        config.setTtl(Map.of("crossref", CROSSREF_TTL, "unpaywall", UNPAYWALL_TTL));
+        config.setNotFoundTtl(NOT_FOUND_TTL);
+        config.setStaleWhileRevalidate(STALE);
+
+        return new DoiMetadataCache(config, jdbc, registry, clock);
+    }
+
+    private Supplier<CompletableFuture<JsonObject>> fetch(JsonObject value) {
+        return () -> {
+            fetches.incrementAndGet();
+            return CompletableFuture.completedFuture(value);
+        };
+    }
+
+    private double count(String result) {
+        return registry.counter(DoiMetadataCache.REQUESTS_METRIC, "service", "Crossref", "result", result).count();
+    }
+
+    @BeforeEach
+    public void setupNodes() {
+        registry = new SimpleMeterRegistry();
+        node1 = new_node();
+        node2 = new_node();
+        doi = "10.1234/" + UUID.randomUUID();
+    }
+
+    @Test
+    public void testSharedBetweenNodes() {
+        assertEquals(metadata("a"), node1.get(crossref, doi, fetch(metadata("a"))).join());
+        assertEquals(metadata("a"), node1.get(crossref, doi, fetch(metadata("b"))).join());
+        assertEquals(metadata("a"), node2.get(crossref, doi, fetch(metadata("b"))).join());
+
+        assertEquals(1, fetches.get());
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("hit"));
+        assertEquals(1, count("shared"));
+        assertEquals(2.0 / 3, registry.get(DoiMetadataCache.HIT_RATIO_METRIC).tag("service", "Crossref").gauge()
+            .value(), 0.001);
+        assertEquals(1, registry.get(DoiMetadataCache.UPSTREAM_METRIC).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testTtlPerService() {
+        node1.get(crossref, doi, fetch(metadata("a"))).join();
+        node1.get(unpaywall, doi, fetch(metadata("a"))).join();
+
+        clock.advance(CROSSREF_TTL.plus(STALE).plusMinutes(1));
+
+        assertEquals(metadata("b"), node1.get(crossref, doi, fetch(metadata("b"))).join());
+        assertEquals(metadata("a"), node1.get(unpaywall, doi, fetch(metadata("b"))).join());
+        assertEquals(3, fetches.get());
+
+        // The new metadata is shared
+        assertEquals(metadata("b"), node2.get(crossref, doi, fetch(metadata("c"))).join());
+        assertEquals(3, fetches.get());
+    }
+
+    @Test
+    public void testNotFoundCached() {
+        assertEquals(error(404), node1.get(crossref, doi, fetch(error(404))).join());
+        assertEquals(error(404), node2.get(crossref, doi, fetch(metadata("a"))).join());
+        assertEquals(1, fetches.get());
+
+        clock.advance(NOT_FOUND_TTL.plus(STALE).plusMinutes(1));
+
+        assertEquals(metadata("a"), node1.get(crossref, doi, fetch(metadata("a"))).join());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testErrorsNotCached() {
+        assertEquals(error(500), node1.get(crossref, doi, fetch(error(500))).join());
+        assertNull(node1.get(crossref, doi, fetch(null)).join());
+        assertEquals(metadata("a"), node1.get(crossref, doi, fetch(metadata("a"))).join());
+
+        assertEquals(3, fetches.get());
+        assertEquals(1, registry.get(DoiMetadataCache.UPSTREAM_METRIC).tag("outcome", "success").timer().count());
+        assertEquals(2, registry.get(DoiMetadataCache.UPSTREAM_METRIC).tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        node1.get(crossref, doi, fetch(metadata("a"))).join();
+
+        clock.advance(CROSSREF_TTL.plusMinutes(1));
+
+        CountDownLatch upstream = new CountDownLatch(1);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        Supplier<CompletableFuture<JsonObject>> slow = () -> CompletableFuture.supplyAsync(() -> {
+            try {
+                upstream.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            refreshed.countDown();
+            return metadata("b");
+        });
+
+        // The stale metadata is returned without waiting on the external service
+        assertEquals(metadata("a"), node1.get(crossref, doi, slow).join());
+        assertEquals(metadata("a"), node1.get(crossref, doi, slow).join());
+        assertEquals(2, count("stale"));
+
+        upstream.countDown();
+        assertTrue(refreshed.await(30, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 30000;
+
+        while (!metadata("b").equals(node1.get(crossref, doi, fetch(metadata("c"))).join())
+               && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(metadata("b"), node1.get(crossref, doi, fetch(metadata("c"))).join());
+        assertEquals(metadata("b"), node2.get(crossref, doi, fetch(metadata("c"))).join());
+        assertEquals(1, fetches.get());
+    }
+}
@@ -16,23 +16,38 @@
 package org.eclipse.pass.doi.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import com.yahoo.elide.RefreshableElide;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
+import jakarta.persistence.EntityManagerFactory;
 import okhttp3.Call;
 import okhttp3.Credentials;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.RequestBody;
 import okhttp3.Response;
 import org.eclipse.pass.main.SimpleIntegrationTest;
 import org.eclipse.pass.object.PassClient;
@@ -42,9 +57,12 @@ import org.eclipse.pass.object.RSQL;
 import org.eclipse.pass.object.model.Journal;
 import org.eclipse.pass.object.model.PmcParticipation;
 import org.eclipse.pass.object.model.Publication;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * This integration test of the DOI API hits the live CrossRef and Unpaywall services.
@@ -58,6 +76,18 @@ class DoiServiceTest extends SimpleIntegrationTest {
     @Autowired
     protected RefreshableElide refreshableElide;
 
+    @Autowired
+    private ElideConnector elideConnector;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JournalIndex journalIndex;
+
     protected PassClient getNewClient() {
         return PassClient.newInstance(refreshableElide);
     }
@@ -244,6 +274,220 @@ class DoiServiceTest extends SimpleIntegrationTest {
         }
     }
 
+    @Test
+    void testConcurrentResolveJournal() throws Exception {
+        String name = "Concurrent Journal";
+        JsonObject xref = Json.createObjectBuilder().add("message", Json.createObjectBuilder()
+            .add("container-title", Json.createArrayBuilder().add(name))
+            .add("ISSN", Json.createArrayBuilder().add("1234-5678"))).build();
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> ids = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < callers; i++) {
+                ids.add(executor.submit(() -> {
+                    start.await();
+                    return elideConnector.resolveJournal(xref);
+                }));
+            }
+
+            start.countDown();
+
+            String id = ids.get(0).get(1, TimeUnit.MINUTES);
+            assertNotNull(id);
+
+            for (Future<String> other : ids) {
+                assertEquals(id, other.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (PassClient passClient = getNewClient()) {
+            PassClientResult<Journal> result = passClient.selectObjects(new PassClientSelector<>(Journal.class, 0,
+                100, RSQL.equals("journalName", name), null));
+            assertEquals(1, result.getObjects().size());
+        }
+    }
+
+    @Test
+    void testResolveJournals() throws Exception {
+        JsonObject first = Json.createObjectBuilder().add("message", Json.createObjectBuilder()
+            .add("container-title", Json.createArrayBuilder().add("Batch Journal One"))
+            .add("ISSN", Json.createArrayBuilder().add("2345-6789"))).build();
+        JsonObject second = Json.createObjectBuilder().add("message", Json.createObjectBuilder()
+            .add("container-title", Json.createArrayBuilder().add("Batch Journal Two"))
+            .add("ISSN", Json.createArrayBuilder().add("3456-7890"))).build();
+        JsonObject book = Json.createObjectBuilder().add("message", Json.createObjectBuilder()
+            .add("container-title", Json.createArrayBuilder().add("Batch Book"))).build();
+
+        List<String> ids = elideConnector.resolveJournals(List.of(first, second, first, book));
+
+        assertEquals(4, ids.size());
+        assertNotNull(ids.get(0));
+        assertNotNull(ids.get(1));
+        assertNotEquals(ids.get(0), ids.get(1));
+        assertEquals(ids.get(0), ids.get(2));
+        assertNull(ids.get(3));
+        assertEquals(ids.get(0), elideConnector.resolveJournal(first));
+
+        try (PassClient passClient = getNewClient()) {
+            PassClientResult<Journal> result = passClient.selectObjects(new PassClientSelector<>(Journal.class, 0,
+                100, RSQL.equals("journalName", "Batch Journal One"), null));
+            assertEquals(1, result.getObjects().size());
+        }
+    }
+
+    @Test
+    void testFindJournal() throws Exception {
+        Journal first = new Journal();
+        first.setJournalName("Match One");
+        first.setIssns(List.of("Print:1111-1111"));
+
+        Journal second = new Journal();
+        second.setJournalName("Match Two");
+        second.setIssns(List.of("Print:1111-1111", "Online:2222-2222"));
+
+        try (PassClient passClient = getNewClient()) {
+            passClient.createObject(first);
+            passClient.createObject(second);
+
+            assertEquals(second.getId(), elideConnector.find("Match Two",
+                List.of("Print:1111-1111", "Online:2222-2222"), passClient).getId());
+            assertEquals(first.getId(), elideConnector.find("Match One", List.of("Print:1111-1111"), passClient)
+                .getId());
+            assertEquals(second.getId(), elideConnector.find("Other Name", List.of("Print:1111-1111",
+                "Online:2222-2222"), passClient).getId());
+
+            // Of equally good matches the first created is found
+            assertEquals(first.getId(), elideConnector.find(null, List.of("Print:1111-1111"), passClient).getId());
+            assertNull(elideConnector.find("No Match", List.of("Print:3333-3333"), passClient));
+        }
+    }
+
+    @Test
+    void testResolveJournalFromIndex() throws Exception {
+        JsonObject xref = Json.createObjectBuilder().add("message", Json.createObjectBuilder()
+            .add("container-title", Json.createArrayBuilder().add("Indexed Journal"))
+            .add("ISSN", Json.createArrayBuilder().add("4567-8901"))).build();
+
+        String id = elideConnector.resolveJournal(xref);
+        assertNotNull(id);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        // The journal is up to date, so it is resolved with a lookup of its id rather than through Elide
+        assertEquals(id, elideConnector.resolveJournal(xref));
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        try (PassClient passClient = getNewClient()) {
+            Journal journal = passClient.getObject(Journal.class, Long.valueOf(id));
+            journal.setJournalName("Renamed Journal");
+            passClient.updateObject(journal);
+        }
+
+        // The hooks saw the change, so the journal is renamed back
+        stats.clear();
+        assertEquals(id, elideConnector.resolveJournal(xref));
+        assertTrue(stats.getPrepareStatementCount() > 0);
+
+        try (PassClient passClient = getNewClient()) {
+            assertEquals("Indexed Journal", passClient.getObject(Journal.class, Long.valueOf(id)).getJournalName());
+            passClient.deleteObject(Journal.class, Long.valueOf(id));
+        }
+
+        // The hooks saw the delete, so the journal is created again
+        String recreated = elideConnector.resolveJournal(xref);
+        assertNotNull(recreated);
+        assertNotEquals(id, recreated);
+
+        // A delete on another node is not seen by the hooks, but it is once the index is reloaded
+        jdbcTemplate.update("DELETE FROM pass_journal_issns WHERE journal_id = ?", Long.valueOf(recreated));
+        jdbcTemplate.update("DELETE FROM pass_journal WHERE id = ?", Long.valueOf(recreated));
+        journalIndex.reload();
+
+        String again = elideConnector.resolveJournal(xref);
+        assertNotNull(again);
+        assertNotEquals(recreated, again);
+    }
+
+    @Test
+    void testIndexedLookupRunsNoStatements() throws Exception {
+        JsonObject xref = Json.createObjectBuilder().add("message", Json.createObjectBuilder()
+            .add("container-title", Json.createArrayBuilder().add("Statement Free Journal"))
+            .add("ISSN", Json.createArrayBuilder().add("5678-9012"))).build();
+
+        JdbcTemplate jdbc = spy(jdbcTemplate);
+        JournalIndex index = new JournalIndex(jdbc, true);
+        ElideConnector connector = new ElideConnector(refreshableElide, index);
+
+        String id = connector.resolveJournal(xref);
+        assertNotNull(id);
+
+        // The hooks keep the application's index up to date, not this one
+        index.reload();
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        clearInvocations(jdbc);
+
+        // Neither Hibernate nor the index query the database
+        assertEquals(id, connector.resolveJournal(xref));
+        assertEquals(0, stats.getPrepareStatementCount());
+        verifyNoInteractions(jdbc);
+    }
+
+    /**
+     * resolve a batch of an invalid and a nonsense doi, expect a line for each with the errors of the single doi
+     * endpoints
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    void batchDoiTest() throws Exception {
+        HttpUrl url = new HttpUrl.Builder()
+            .scheme("http")
+            .host("localhost")
+            .port(getPort())
+            .addPathSegment("doi")
+            .addPathSegment("batch")
+            .build();
+
+        Request okHttpRequest = new Request.Builder()
+            .url(url).header("Authorization", CREDENTIALS)
+            .header("X-XSRF-TOKEN", getCsrfToken(httpClient))
+            .post(RequestBody.create("[\"moo\", \"10.1212/abc.DEF\"]", MediaType.parse("application/json")))
+            .build();
+        Call call = httpClient.newCall(okHttpRequest);
+        try (Response okHttpResponse = call.execute()) {
+            assertEquals(200, okHttpResponse.code());
+            assertTrue(okHttpResponse.header("Content-Type").startsWith("application/x-ndjson"));
+            assert okHttpResponse.body() != null;
+
+            Map<String, JsonObject> lines = new HashMap<>();
+
+            for (String line : okHttpResponse.body().string().split("\n")) {
+                try (JsonReader reader = Json.createReader(new StringReader(line))) {
+                    JsonObject object = reader.readObject();
+                    lines.put(object.getString("doi"), object);
+                }
+            }
+
+            assertEquals(2, lines.size());
+            assertEquals(400, lines.get("moo").getJsonObject("journal").getInt("status"));
+            assertEquals("Supplied DOI is not in valid DOI format.", lines.get("moo").getJsonObject("journal")
+                .getJsonObject("response").getString("error"));
+            assertEquals(400, lines.get("moo").getJsonObject("manuscript").getInt("status"));
+            assertEquals(404, lines.get("10.1212/abc.DEF").getJsonObject("journal").getInt("status"));
+            assertEquals("The resource for DOI 10.1212/abc.DEF could not be found on Crossref.",
+                lines.get("10.1212/abc.DEF").getJsonObject("journal").getJsonObject("response").getString("error"));
+        }
+    }
+
     @Test
     void testUpdateJournal() throws Exception {
         final String expectedJournalName = "Publications of the Astronomical Society of the Pacific";
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.datastore.DataStore;
+import com.yahoo.elide.core.datastore.DataStoreTransaction;
+import com.yahoo.elide.core.filter.expression.FilterExpression;
+import com.yahoo.elide.core.pagination.PaginationImpl;
+import com.yahoo.elide.core.request.EntityProjection;
+import com.yahoo.elide.core.type.ClassType;
+import org.eclipse.pass.object.model.Grant;
+import org.eclipse.pass.object.model.Journal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ApproximateTotalsDataStoreTest {
+    private DataStoreTransaction tx;
+    private RequestScope scope;
+    private DataStoreTransaction wrapped_tx;
+
+    @BeforeEach
+    public void setup() {
+        DataStore store = mock(DataStore.class);
+        tx = mock(DataStoreTransaction.class);
+        scope = mock(RequestScope.class);
+        when(store.beginReadTransaction()).thenReturn(tx);
+
+        DataStore approximate = new ApproximateTotalsDataStore(store, Set.of("grant"), 1000,
+            table -> table.equals("pass_grant") ? 5000L : 10L);
+        wrapped_tx = approximate.beginReadTransaction();
+    }
+
+    private EntityProjection projection(Class<?> type, boolean totals) {
+        return EntityProjection.builder().type(ClassType.of(type))
+            .pagination(new PaginationImpl(ClassType.of(type), 0, 10, 10, 10, totals, false)).build();
+    }
+
+    @Test
+    public void testEstimateTotals() {
+        EntityProjection projection = projection(Grant.class, true);
+
+        wrapped_tx.loadObjects(projection, scope);
+
+        ArgumentCaptor<EntityProjection> captor = ArgumentCaptor.forClass(EntityProjection.class);
+        verify(tx).loadObjects(captor.capture(), eq(scope));
+
+        assertFalse(captor.getValue().getPagination().returnPageTotals());
+        assertEquals(5000L, projection.getPagination().getPageTotals());
+        verify(scope).setMetadataField(ApproximateTotalsDataStore.APPROXIMATE_TOTALS, true);
+    }
+
+    @Test
+    public void testCountWhenNotConfigured() {
+        EntityProjection projection = projection(Journal.class, true);
+
+        wrapped_tx.loadObjects(projection, scope);
+
+        verify(tx).loadObjects(projection, scope);
+        assertNull(projection.getPagination().getPageTotals());
+        verify(scope, never()).setMetadataField(anyString(), any());
+    }
+
+    @Test
+    public void testCountWhenFiltered() {
+        EntityProjection projection = projection(Grant.class, true).copyOf()
+            .filterExpression(mock(FilterExpression.class)).build();
+
+        wrapped_tx.loadObjects(projection, scope);
+
+        verify(tx).loadObjects(projection, scope);
+        verify(scope, never()).setMetadataField(anyString(), any());
+    }
+
+    @Test
+    public void testNoTotalsRequested() {
+        EntityProjection projection = projection(Grant.class, false);
+
+        wrapped_tx.loadObjects(projection, scope);
+
+        verify(tx).loadObjects(projection, scope);
+        verify(scope, never()).setMetadataField(anyString(), any());
+    }
+}
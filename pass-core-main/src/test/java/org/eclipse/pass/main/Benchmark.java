@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal benchmark harness for the opt-in benchmark tests. Runs a task a number of times after a warmup and
+ * reports latency percentiles along with the bytes allocated by the calling thread.
+ * <p>
+ * Benchmark tests are only run when the system property pass.benchmark is set to true.
+ */
+public class Benchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(Benchmark.class);
+
+    /**
+     * System property which enables benchmark tests.
+     */
+    public static final String PROPERTY = "pass.benchmark";
+
+    /**
+     * Task to be measured.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * @param iteration index of the run
+         * @throws Exception if the task fails
+         */
+        void run(int iteration) throws Exception;
+    }
+
+    /**
+     * Result of a benchmark run.
+     *
+     * @param name name of the benchmark
+     * @param runs number of measured runs
+     * @param p50Micros median latency in microseconds
+     * @param p99Micros 99th percentile latency in microseconds
+     * @param meanMicros mean latency in microseconds
+     * @param bytesPerRun bytes allocated per run by the calling thread or -1 if unknown
+     */
+    public record Result(String name, int runs, long p50Micros, long p99Micros, long meanMicros, long bytesPerRun) {
+        @Override
+        public String toString() {
+            return String.format("%s: runs=%d p50=%dus p99=%dus mean=%dus alloc=%dB/run", name, runs, p50Micros,
+                p99Micros, meanMicros, bytesPerRun);
+        }
+    }
+
+    private Benchmark() {
+    }
+
+    /**
+     * Run the task warmup times and then measure it for the given number of runs. The result is logged.
+     *
+     * @param name name of the benchmark
+     * @param warmup number of unmeasured runs
+     * @param runs number of measured runs
+     * @param task task to run
+     * @return result
+     * @throws Exception if the task fails
+     */
+    public static Result run(String name, int warmup, int runs, Task task) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            task.run(i);
+        }
+
+        long[] times = new long[runs];
+        long startBytes = allocatedBytes();
+
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run(warmup + i);
+            times[i] = System.nanoTime() - start;
+        }
+
+        long endBytes = allocatedBytes();
+
+        Arrays.sort(times);
+        long total = Arrays.stream(times).sum();
+
+        Result result = new Result(name, runs, times[runs / 2] / 1000, times[(int) (runs * 0.99)] / 1000,
+            total / runs / 1000, startBytes < 0 ? -1 : (endBytes - startBytes) / runs);
+
+        LOG.warn(result.toString());
+
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yahoo.elide.RefreshableElide;
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.pass.object.DataStorePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Journal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Measure inserting objects in bulk along with the statements needed per object.
+ * Run with -Dpass.benchmark=true.
+ */
+@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+public class BulkInsertBenchmarkTest extends SimpleIntegrationTest {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkInsertBenchmarkTest.class);
+
+    private static final int WARMUP = 20;
+    private static final int RUNS = 100;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Journal> journals(int run) {
+        List<Journal> result = new ArrayList<>();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Journal journal = new Journal();
+            journal.setJournalName("benchmark " + run + " " + i);
+            result.add(journal);
+        }
+
+        return result;
+    }
+
+    @Test
+    public void benchmarkBulkInsert() throws Exception {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        try (PassClient client = new DataStorePassClient(refreshableElide)) {
+            Benchmark.run("createObjects " + BATCH_SIZE, WARMUP, RUNS, i -> client.createObjects(journals(i)));
+
+            stats.clear();
+            client.createObjects(journals(-1));
+
+            LOG.warn("createObjects {}: {} statements", BATCH_SIZE, stats.getPrepareStatementCount());
+
+            Benchmark.run("createObject", WARMUP * 10, RUNS * 10, i -> {
+                Journal journal = new Journal();
+                journal.setJournalName("benchmark single " + i);
+                client.createObject(journal);
+            });
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import com.yahoo.elide.RefreshableElide;
+import jakarta.persistence.EntityManagerFactory;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.eclipse.pass.object.ElidePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Funder;
+import org.eclipse.pass.object.model.Submission;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class EntityTagTest extends SimpleIntegrationTest {
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private PassClient client;
+    private OkHttpClient http;
+
+    @BeforeEach
+    public void setupClient() throws IOException {
+        client = new ElidePassClient(refreshableElide);
+        http = newOkhttpClient();
+    }
+
+    @AfterEach
+    public void cleanupClient() throws IOException {
+        client.close();
+    }
+
+    private Response get(String path, String ifNoneMatch) throws IOException {
+        Request.Builder builder = new Request.Builder().url(getBaseUrl() + path)
+            .header("Accept", JSON_API_CONTENT_TYPE).header("Authorization", BACKEND_CREDENTIALS);
+
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+
+        return http.newCall(builder.get().build()).execute();
+    }
+
+    private Response patch(String path, JSONObject doc, String ifMatch) throws IOException {
+        RequestBody body = RequestBody.create(doc.toString(), JSON_API_MEDIA_TYPE);
+
+        Request request = new Request.Builder().url(getBaseUrl() + path).header("Accept", JSON_API_CONTENT_TYPE)
+            .header("Content-Type", JSON_API_CONTENT_TYPE).header("Authorization", BACKEND_CREDENTIALS)
+            .header("X-XSRF-TOKEN", getCsrfToken(http)).header("If-Match", ifMatch).patch(body).build();
+
+        return http.newCall(request).execute();
+    }
+
+    private JSONObject submission_doc(Submission sub, String submitterName) throws JSONException {
+        JSONObject data = new JSONObject();
+        data.put("type", "submission");
+        data.put("id", sub.getId().toString());
+        data.put("attributes", new JSONObject().put("submitterName", submitterName));
+
+        return new JSONObject().put("data", data);
+    }
+
+    @Test
+    public void testVersionEntityTag() throws IOException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        client.createObject(sub);
+
+        String path = "data/submission/" + sub.getId();
+        String etag;
+
+        try (Response response = get(path, null)) {
+            assertEquals(200, response.code());
+            etag = response.header("ETag");
+            assertEquals(EntityTagFilter.versionTag(sub.getVersion(), null), etag);
+        }
+
+        try (Response response = get(path, etag)) {
+            assertEquals(304, response.code());
+        }
+
+        sub.setSubmitterName("Alice");
+        client.updateObject(sub);
+
+        try (Response response = get(path, etag)) {
+            assertEquals(200, response.code());
+            assertNotEquals(etag, response.header("ETag"));
+        }
+    }
+
+    @Test
+    public void testVersionEntityTagDependsOnQuery() throws IOException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        client.createObject(sub);
+
+        String path = "data/submission/" + sub.getId();
+
+        try (Response response = get(path, null); Response sparse = get(path + "?fields[submission]=version",
+                null)) {
+            assertNotEquals(response.header("ETag"), sparse.header("ETag"));
+            assertTrue(sparse.header("ETag").startsWith("W/"));
+        }
+    }
+
+    @Test
+    public void testNotModifiedWithoutLoadingResource() throws IOException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        client.createObject(sub);
+
+        String path = "data/submission/" + sub.getId();
+        String etag;
+
+        try (Response response = get(path, null)) {
+            etag = response.header("ETag");
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        // Only the version is looked up
+        try (Response response = get(path, etag)) {
+            assertEquals(304, response.code());
+            assertEquals(etag, response.header("ETag"));
+        }
+
+        assertEquals(0, stats.getEntityLoadCount());
+        assertTrue(stats.getPrepareStatementCount() <= 1);
+    }
+
+    @Test
+    public void testHashEntityTag() throws IOException {
+        Funder funder = new Funder();
+        funder.setName("Funder");
+        client.createObject(funder);
+
+        String path = "data/funder/" + funder.getId();
+        String etag;
+
+        try (Response response = get(path, null)) {
+            assertEquals(200, response.code());
+            etag = response.header("ETag");
+            assertNotNull(etag);
+        }
+
+        try (Response response = get(path, etag)) {
+            assertEquals(304, response.code());
+        }
+
+        funder.setName("Updated funder");
+        client.updateObject(funder);
+
+        try (Response response = get(path, etag)) {
+            assertEquals(200, response.code());
+        }
+    }
+
+    @Test
+    public void testIfMatch() throws IOException, JSONException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        client.createObject(sub);
+
+        String path = "data/submission/" + sub.getId();
+        String etag = EntityTagFilter.versionTag(sub.getVersion(), null);
+
+        try (Response response = patch(path, submission_doc(sub, "Alice"), etag)) {
+            assertEquals(200, response.code());
+        }
+
+        // The version has changed so the original ETag no longer matches
+        try (Response response = patch(path, submission_doc(sub, "Carol"), etag)) {
+            assertEquals(412, response.code());
+        }
+
+        assertEquals("Alice", client.getObject(Submission.class, sub.getId()).getSubmitterName());
+    }
+
+    @Test
+    public void testIfMatchWithQueryEntityTag() throws IOException, JSONException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        client.createObject(sub);
+
+        String path = "data/submission/" + sub.getId();
+        String etag;
+
+        try (Response response = get(path + "?fields[submission]=submitterName,version", null)) {
+            assertEquals(200, response.code());
+            etag = response.header("ETag");
+        }
+
+        // The ETag of a sparse representation still identifies the version
+        try (Response response = patch(path, submission_doc(sub, "Alice"), etag)) {
+            assertEquals(200, response.code());
+        }
+
+        try (Response response = patch(path, submission_doc(sub, "Carol"), etag)) {
+            assertEquals(412, response.code());
+        }
+
+        assertEquals("Alice", client.getObject(Submission.class, sub.getId()).getSubmitterName());
+    }
+
+    @Test
+    public void testIfMatchAny() throws IOException, JSONException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        client.createObject(sub);
+
+        try (Response response = patch("data/submission/" + sub.getId(), submission_doc(sub, "Alice"), "*")) {
+            assertEquals(200, response.code());
+        }
+
+        assertEquals("Alice", client.getObject(Submission.class, sub.getId()).getSubmitterName());
+    }
+
+    @Test
+    public void testNoEntityTagForMissingResource() throws IOException {
+        try (Response response = get("data/submission/" + Long.MAX_VALUE, EntityTagFilter.versionTag(0, null))) {
+            assertEquals(404, response.code());
+            assertNull(response.header("ETag"));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yahoo.elide.RefreshableElide;
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.pass.object.DataStorePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Journal;
+import org.eclipse.pass.object.model.PassEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Ids are allocated in blocks, so inserts should not need a sequence call each.
+ */
+public class IdAllocationTest extends SimpleIntegrationTest {
+    private static final Logger LOG = LoggerFactory.getLogger(IdAllocationTest.class);
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testBulkInsert() throws IOException {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Journal> journals = new ArrayList<>();
+
+        for (int i = 0; i < PassEntity.ID_ALLOCATION_SIZE; i++) {
+            Journal journal = new Journal();
+            journal.setJournalName("allocated journal " + i);
+            journals.add(journal);
+        }
+
+        stats.clear();
+
+        try (PassClient client = new DataStorePassClient(refreshableElide)) {
+            client.createObjects(journals);
+        }
+
+        long count = stats.getPrepareStatementCount();
+
+        LOG.info("Insert {} journals: {} statements", journals.size(), count);
+
+        // Ids are allocated in blocks so there should be at most two sequence calls
+        assertTrue(count <= journals.size() + 2);
+        assertEquals(journals.size(), journals.stream().map(Journal::getId).distinct().count());
+    }
+}
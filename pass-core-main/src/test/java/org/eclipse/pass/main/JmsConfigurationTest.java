@@ -1,6 +1,8 @@
 package org.eclipse.pass.main;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
@@ -10,6 +12,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 
 import com.yahoo.elide.RefreshableElide;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.jms.JMSException;
 import jakarta.jms.QueueBrowser;
 import jakarta.jms.Session;
@@ -34,8 +37,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jms.core.BrowserCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.TestPropertySource;
 
+@TestPropertySource(properties = {
+    "pass.jms.coalesce-window=2000"
+})
 public class JmsConfigurationTest extends SimpleIntegrationTest {
     @Autowired
     private JmsTemplate jms;
@@ -49,6 +57,12 @@ public class JmsConfigurationTest extends SimpleIntegrationTest {
     @Autowired
     private TokenFactory userTokenFactory;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
     private PassClient client;
 
     private void clear_queue(String queue) throws JMSException {
@@ -103,6 +117,33 @@ public class JmsConfigurationTest extends SimpleIntegrationTest {
         return parse_json(mesg.getText());
     }
 
+    private double count_suppressed(String type, String reason) {
+        return meterRegistry.counter(JmsConfiguration.SUPPRESSED_METRIC, "type", type, "reason", reason).count();
+    }
+
+    private int count_outbox(String key) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM pass_outbox WHERE message_key = ?", Integer.class, key);
+    }
+
+    @Test
+    public void testSessionsCached() throws JMSException {
+        assertInstanceOf(MeteredCachingConnectionFactory.class, jms.getConnectionFactory());
+
+        String queue = "pass-cache-test";
+        double requested = meterRegistry.counter("pass.jms.sessions.requested").count();
+        double created = meterRegistry.counter("pass.jms.sessions.created").count();
+
+        for (int i = 0; i < 20; i++) {
+            jms.convertAndSend(queue, "message " + i);
+        }
+
+        // The outbox relay may also be sending, but with transacted sessions which are cached separately
+        assertTrue(meterRegistry.counter("pass.jms.sessions.requested").count() >= requested + 20);
+        assertTrue(meterRegistry.counter("pass.jms.sessions.created").count() <= created + 1);
+
+        clear_queue(queue);
+    }
+
     @Test
     public void testSubmissionMesssage() throws IOException, JMSException {
         Submission sub = new Submission();
@@ -117,15 +158,34 @@ public class JmsConfigurationTest extends SimpleIntegrationTest {
         assertEquals(sub.getId().toString(), result.getString(JmsConfiguration.SUBMISSION_KEY));
         assertEquals(JmsConfiguration.SUBMISSION_MESSAGE_TYPE, result.getString(JmsConfiguration.TYPE_KEY));
 
+        // An update which does not change submitted does not send a message
+        double suppressed = count_suppressed(JmsConfiguration.SUBMISSION_MESSAGE_TYPE, "unchanged");
+
         sub.setSubmissionStatus(SubmissionStatus.SUBMITTED);
 
         client.updateObject(sub);
 
-        result = get_json_message(jmsConfig.getSubmissionQueue(),
+        assertEquals(suppressed + 1, count_suppressed(JmsConfiguration.SUBMISSION_MESSAGE_TYPE, "unchanged"));
+    }
+
+    @Test
+    public void testSubmissionMesssageWhenSubmitted() throws IOException, JMSException {
+        Submission sub = new Submission();
+        sub.setSubmitterName("Bob");
+        sub.setSubmitted(false);
+
+        client.createObject(sub);
+
+        assertEquals(0, count_outbox("submission:" + sub.getId()));
+
+        sub.setSubmitted(true);
+
+        client.updateObject(sub);
+
+        JsonObject result = get_json_message(jmsConfig.getSubmissionQueue(),
                 JmsConfiguration.SUBMISSION_MESSAGE_TYPE);
 
         assertEquals(sub.getId().toString(), result.getString(JmsConfiguration.SUBMISSION_KEY));
-        assertEquals(JmsConfiguration.SUBMISSION_MESSAGE_TYPE, result.getString(JmsConfiguration.TYPE_KEY));
     }
 
     @Test
@@ -185,4 +245,34 @@ public class JmsConfigurationTest extends SimpleIntegrationTest {
         assertEquals(dep.getId().toString(), result.getString(JmsConfiguration.DEPOSIT_KEY));
         assertEquals(JmsConfiguration.DEPOSIT_MESSAGE_TYPE, result.getString(JmsConfiguration.TYPE_KEY));
     }
+
+    @Test
+    public void testDepositMessageCoalesced() throws JMSException, IOException {
+        double coalesced = count_suppressed(JmsConfiguration.DEPOSIT_MESSAGE_TYPE, "coalesced");
+        double unchanged = count_suppressed(JmsConfiguration.DEPOSIT_MESSAGE_TYPE, "unchanged");
+
+        Deposit dep = new Deposit();
+        dep.setDepositStatus(DepositStatus.SUBMITTED);
+
+        // The message for a new object is not held
+        client.createObject(dep);
+
+        dep.setDepositStatus(DepositStatus.ACCEPTED);
+        client.updateObject(dep);
+
+        // Changes within the coalesce window are sent as the message already held
+        dep.setDepositStatus(DepositStatus.REJECTED);
+        client.updateObject(dep);
+
+        dep.setDepositStatusRef("ref");
+        client.updateObject(dep);
+
+        assertEquals(coalesced + 1, count_suppressed(JmsConfiguration.DEPOSIT_MESSAGE_TYPE, "coalesced"));
+        assertEquals(unchanged + 1, count_suppressed(JmsConfiguration.DEPOSIT_MESSAGE_TYPE, "unchanged"));
+
+        JsonObject result = get_json_message(jmsConfig.getDepositQueue(),
+                JmsConfiguration.DEPOSIT_MESSAGE_TYPE);
+
+        assertEquals(dep.getId().toString(), result.getString(JmsConfiguration.DEPOSIT_KEY));
+    }
 }
\ No newline at end of file
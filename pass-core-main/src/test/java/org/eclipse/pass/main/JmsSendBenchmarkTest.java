@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.jms.ConnectionFactory;
+import org.eclipse.pass.main.outbox.JmsOutboxSender;
+import org.eclipse.pass.main.outbox.OutboxMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Measure the overhead of sending a message to the embedded broker with and without the connection cache.
+ * Run with -Dpass.benchmark=true.
+ */
+@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+public class JmsSendBenchmarkTest extends SimpleIntegrationTest {
+    private static final Logger LOG = LoggerFactory.getLogger(JmsSendBenchmarkTest.class);
+
+    private static final String QUEUE = "pass-benchmark";
+    private static final int WARMUP = 200;
+    private static final int RUNS = 2000;
+    private static final int BATCH_SIZE = 10;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private List<OutboxMessage> batch(int run) {
+        return IntStream.range(0, BATCH_SIZE).mapToObj(i -> new OutboxMessage(run * BATCH_SIZE + i, QUEUE,
+            "benchmark", "message " + i, 0, Instant.now())).toList();
+    }
+
+    @Test
+    public void benchmarkSend() throws Exception {
+        ConnectionFactory target = ((CachingConnectionFactory) connectionFactory).getTargetConnectionFactory();
+
+        JmsTemplate uncached = new JmsTemplate(target);
+        JmsTemplate cached = new JmsTemplate(connectionFactory);
+
+        Benchmark.run("send uncached", WARMUP, RUNS, i -> uncached.convertAndSend(QUEUE, "message " + i));
+        Benchmark.run("send cached", WARMUP, RUNS, i -> cached.convertAndSend(QUEUE, "message " + i));
+
+        JmsOutboxSender uncached_sender = new JmsOutboxSender(target);
+        JmsOutboxSender cached_sender = new JmsOutboxSender(connectionFactory);
+
+        Benchmark.run("outbox batch " + BATCH_SIZE + " uncached", WARMUP, RUNS,
+            i -> uncached_sender.send(QUEUE, batch(i)));
+        Benchmark.run("outbox batch " + BATCH_SIZE + " cached", WARMUP, RUNS,
+            i -> cached_sender.send(QUEUE, batch(i)));
+
+        LOG.warn("Sessions requested {}, created {}, connections created {}",
+            meterRegistry.counter("pass.jms.sessions.requested").count(),
+            meterRegistry.counter("pass.jms.sessions.created").count(),
+            meterRegistry.counter("pass.jms.connections.created").count());
+    }
+}
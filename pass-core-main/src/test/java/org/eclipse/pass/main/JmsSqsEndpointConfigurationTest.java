@@ -23,6 +23,7 @@ import com.amazon.sqs.javamessaging.SQSConnectionFactory;
 import jakarta.jms.ConnectionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.core.client.config.SdkClientOption;
@@ -40,7 +41,8 @@ public class JmsSqsEndpointConfigurationTest extends SimpleIntegrationTest {
     @Test
     public void testSqsEndpointOverrideConfig()  {
         // WHEN
-        SQSConnectionFactory sqsConnectionFactory = (SQSConnectionFactory) connectionFactory;
+        SQSConnectionFactory sqsConnectionFactory = (SQSConnectionFactory)
+            ((CachingConnectionFactory) connectionFactory).getTargetConnectionFactory();
         Object amazonSQSClientSupplier = ReflectionTestUtils.getField(sqsConnectionFactory,
             "amazonSQSClientSupplier");
         Object sqsClient = ReflectionTestUtils.invokeGetterMethod(amazonSQSClientSupplier, "get");
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yahoo.elide.RefreshableElide;
+import org.eclipse.pass.object.DataStorePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.PassClientSelector;
+import org.eclipse.pass.object.RSQL;
+import org.eclipse.pass.object.model.Deposit;
+import org.eclipse.pass.object.model.Journal;
+import org.eclipse.pass.object.model.PassEntity;
+import org.eclipse.pass.object.model.Policy;
+import org.eclipse.pass.object.model.Submission;
+import org.eclipse.pass.object.model.User;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Run the filters generated by the services against a seeded Postgres database and ensure that none of the
+ * resulting queries plan a sequential scan of a seeded table.
+ * <p>
+ * The SQL of each query is recorded and explained as a generic plan, so the parameters do not need values.
+ * <p>
+ * The test needs Docker and fails without it rather than being skipped, so that the check is not silently lost.
+ * Set the system property pass.test.skip-docker to true to skip it explicitly.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = Main.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ActiveProfiles("test")
+@Testcontainers
+@DisabledIfSystemProperty(named = "pass.test.skip-docker", matches = "true")
+public class QueryPlanTest {
+    private static final DockerImageName POSTGRES_IMAGE = DockerImageName.parse("postgres:16-alpine");
+
+    // Ids of seeded rows start here so they do not collide with the sequence
+    private static final long SEED_ID = 100_000_000L;
+    private static final int SEED_ROWS = 20_000;
+
+    private static final Set<String> SEEDED_TABLES = Set.of("pass_user", "pass_user_locators", "pass_journal",
+        "pass_journal_issns", "pass_policy", "pass_grant", "pass_repository", "pass_repository_copy",
+        "pass_submission", "pass_submission_grants", "pass_submission_repositories", "pass_deposit");
+
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(POSTGRES_IMAGE);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @TestConfiguration
+    static class RecorderConfiguration {
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, RECORDER);
+        }
+    }
+
+    /**
+     * Records the SQL of statements while enabled.
+     */
+    static class StatementRecorder implements StatementInspector {
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean recording;
+
+        @Override
+        public String inspect(String sql) {
+            if (recording) {
+                statements.add(sql);
+            }
+
+            return sql;
+        }
+
+        List<String> record(Runnable action) {
+            statements.clear();
+            recording = true;
+
+            try {
+                action.run();
+            } finally {
+                recording = false;
+            }
+
+            return new ArrayList<>(statements);
+        }
+    }
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeAll
+    public void seed() {
+        String ids = " FROM generate_series(" + SEED_ID + ", " + (SEED_ID + SEED_ROWS - 1) + ") AS i";
+
+        jdbc.execute("INSERT INTO pass_user (id, username, displayname) SELECT i, 'seed' || i, 'Seed ' || i" + ids);
+        jdbc.execute("INSERT INTO pass_user_locators (user_id, locatorids) SELECT i, 'seed:unique-id:' || i" + ids);
+        jdbc.execute("INSERT INTO pass_user_locators (user_id, locatorids) SELECT i, 'seed:eppn:' || i" + ids);
+        jdbc.execute("INSERT INTO pass_journal (id, journalname) SELECT i, 'Seed journal ' || i" + ids);
+        jdbc.execute("INSERT INTO pass_journal_issns (journal_id, issns) SELECT i, 'Print:' || i" + ids);
+        jdbc.execute("INSERT INTO pass_journal_issns (journal_id, issns) SELECT i, 'Online:' || i" + ids);
+        jdbc.execute("INSERT INTO pass_policy (id, title) SELECT i, 'Seed policy ' || i" + ids);
+        jdbc.execute("INSERT INTO pass_grant (id, awardnumber) SELECT i, 'seed-' || i" + ids);
+        jdbc.execute("INSERT INTO pass_repository (id, name) SELECT i, 'Seed repository ' || i" + ids);
+        jdbc.execute("INSERT INTO pass_repository_copy (id, repository_id) SELECT i, i" + ids);
+        jdbc.execute("INSERT INTO pass_submission (id, submittername, submitter_id) SELECT i, 'Seed', i" + ids);
+        jdbc.execute("INSERT INTO pass_submission_grants (submission_id, grants_id) SELECT i, i" + ids);
+        jdbc.execute("INSERT INTO pass_submission_repositories (submission_id, repositories_id) SELECT i, i" + ids);
+        jdbc.execute("INSERT INTO pass_deposit (id, submission_id, repository_id, repositorycopy_id) "
+            + "SELECT i, i, i, i" + ids);
+
+        jdbc.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> lookups() {
+        long id = SEED_ID + SEED_ROWS / 2;
+
+        return Stream.of(
+            Arguments.of(User.class, RSQL.hasMember("locatorIds", "seed:eppn:" + id)),
+            Arguments.of(User.class, RSQL.in("locatorIds", "seed:unique-id:" + id, "seed:eppn:" + id)),
+            Arguments.of(User.class, RSQL.equals("username", "seed" + id)),
+            Arguments.of(Journal.class, RSQL.hasMember("issns", "Online:" + id)),
+            Arguments.of(Journal.class, RSQL.in("issns", "Print:" + id, "Online:" + id)),
+            Arguments.of(Journal.class, RSQL.equals("journalName", "Seed journal " + id)),
+            Arguments.of(Policy.class, RSQL.equals("title", "Seed policy " + id)),
+            Arguments.of(Policy.class, RSQL.in("id", String.valueOf(id), String.valueOf(id + 1))),
+            Arguments.of(Submission.class, RSQL.equals("grants.id", String.valueOf(id))),
+            Arguments.of(Submission.class, RSQL.equals("repositories.id", String.valueOf(id))),
+            Arguments.of(Deposit.class, RSQL.equals("repository.id", String.valueOf(id))),
+            Arguments.of(Deposit.class, RSQL.equals("repositoryCopy.id", String.valueOf(id)))
+        );
+    }
+
+    // Return the seeded tables which are scanned sequentially anywhere in the plan
+    private void find_seq_scans(JsonNode plan, List<String> result) {
+        if (plan.path("Node Type").asText().equals("Seq Scan")
+            && SEEDED_TABLES.contains(plan.path("Relation Name").asText())) {
+            result.add(plan.path("Relation Name").asText());
+        }
+
+        plan.path("Plans").forEach(p -> find_seq_scans(p, result));
+    }
+
+    private List<String> explain(String sql) throws IOException {
+        // Number the parameters so that a generic plan can be made without values
+        StringBuilder numbered = new StringBuilder();
+        int param = 0;
+
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++param);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        String json = jdbc.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered, String.class);
+
+        List<String> result = new ArrayList<>();
+        mapper.readTree(json).forEach(p -> find_seq_scans(p.path("Plan"), result));
+
+        return result;
+    }
+
+    @ParameterizedTest
+    @MethodSource("lookups")
+    public <T extends PassEntity> void testNoSequentialScan(Class<T> type, String filter) throws IOException {
+        PassClientSelector<T> selector = new PassClientSelector<>(type);
+        selector.setFilter(filter);
+        selector.setLimit(2);
+        selector.setTotals(false);
+
+        List<T> found = new ArrayList<>();
+
+        List<String> statements = RECORDER.record(() -> {
+            try (PassClient client = new DataStorePassClient(refreshableElide)) {
+                found.addAll(client.selectObjects(selector).getObjects());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertEquals(1, found.size());
+        assertFalse(statements.isEmpty());
+
+        for (String sql : statements) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                List<String> scans = explain(sql);
+                assertTrue(scans.isEmpty(), "Sequential scan of " + scans + " for " + filter + ": " + sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.yahoo.elide.RefreshableElide;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.pass.object.ElidePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Funder;
+import org.eclipse.pass.object.model.Policy;
+import org.eclipse.pass.object.model.Repository;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+// Hibernate statistics are off by default and the cache meters must not depend on them
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+public class SecondLevelCacheTest extends SimpleIntegrationTest {
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private PassClient client;
+    private Cache cache;
+
+    @BeforeEach
+    public void setupClient() {
+        // Use this implementation of PassClient in order to invoke hooks
+        client = new ElidePassClient(refreshableElide);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        cache = sessionFactory.getCache();
+    }
+
+    @AfterEach
+    public void cleanupClient() throws IOException {
+        client.close();
+    }
+
+    @Test
+    public void testFunderReadFromCache() throws IOException {
+        Funder funder = new Funder();
+        funder.setName("Cached funder");
+
+        client.createObject(funder);
+        client.getObject(Funder.class, funder.getId());
+
+        assertTrue(cache.containsEntity(Funder.class, funder.getId()));
+
+        FunctionCounter hits = registry.find("cache.gets").tags("cache", "funder", "result", "hit")
+            .functionCounter();
+        assertNotNull(hits);
+        assertNotNull(registry.find("cache.gets").tags("cache", "funder", "result", "miss").functionCounter());
+
+        double count = hits.count();
+
+        Funder result = client.getObject(Funder.class, funder.getId());
+
+        assertEquals(funder, result);
+        assertTrue(hits.count() > count);
+    }
+
+    @Test
+    public void testFunderUpdatedInCache() throws IOException {
+        Funder funder = new Funder();
+        funder.setName("Original");
+
+        client.createObject(funder);
+        client.getObject(Funder.class, funder.getId());
+
+        funder.setName("Updated");
+        client.updateObject(funder);
+
+        assertEquals("Updated", client.getObject(Funder.class, funder.getId()).getName());
+    }
+
+    @Test
+    public void testFunderDeleted() throws IOException {
+        Funder funder = new Funder();
+        funder.setName("Deleted");
+
+        client.createObject(funder);
+        client.getObject(Funder.class, funder.getId());
+
+        client.deleteObject(funder);
+
+        assertNull(client.getObject(Funder.class, funder.getId()));
+    }
+
+    @Test
+    public void testPolicyRepositoriesUpdated() throws IOException {
+        Repository repo = new Repository();
+        repo.setName("Cached repository");
+        client.createObject(repo);
+
+        Policy policy = new Policy();
+        policy.setTitle("Cached policy");
+        policy.setRepositories(List.of(repo));
+        client.createObject(policy);
+
+        client.getObject(Policy.class, policy.getId());
+
+        String role = Policy.class.getName() + ".repositories";
+        assertTrue(cache.containsCollection(role, policy.getId()));
+
+        policy.setRepositories(List.of());
+        client.updateObject(policy);
+
+        assertEquals(0, client.getObject(Policy.class, policy.getId()).getRepositories().size());
+    }
+
+    @Test
+    public void testCacheMetricsAsBackend() throws IOException {
+        OkHttpClient http = newOkhttpClient();
+
+        String url = getBaseUrl() + "actuator/metrics/cache.gets";
+
+        Request request = new Request.Builder().url(url).header("Authorization", BACKEND_CREDENTIALS).get().build();
+
+        try (Response response = http.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+
+        request = new Request.Builder().url(url).get().build();
+
+        try (Response response = http.newCall(request).execute()) {
+            assertEquals(401, response.code());
+        }
+    }
+
+    @Test
+    public void testHealthIsPublic() throws IOException {
+        OkHttpClient http = newOkhttpClient();
+
+        Request request = new Request.Builder().url(getBaseUrl() + "actuator/health").get().build();
+
+        try (Response response = http.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+    }
+}
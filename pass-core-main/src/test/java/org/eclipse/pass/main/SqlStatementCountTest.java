@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.yahoo.elide.RefreshableElide;
+import jakarta.persistence.EntityManagerFactory;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.pass.object.ElidePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Grant;
+import org.eclipse.pass.object.model.Policy;
+import org.eclipse.pass.object.model.Repository;
+import org.eclipse.pass.object.model.Submission;
+import org.eclipse.pass.object.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Count the SQL statements needed for common UI queries. The collections of a submission are loaded lazily, so only
+ * the requested fields should be loaded and collections should be loaded in batches rather than once per object.
+ */
+public class SqlStatementCountTest extends SimpleIntegrationTest {
+    private static final Logger LOG = LoggerFactory.getLogger(SqlStatementCountTest.class);
+    private static final int NUM_SUBMISSIONS = 20;
+
+    // With eager collections every query below needed at least one statement per submission. Now a query needs one
+    // statement for the submissions and one batched statement per collection it serializes, including the eager
+    // collections of the grants, users and policies it loads, plus a little slack.
+    private static final int MAX_LIST_STATEMENTS = 12;
+    private static final int MAX_SPARSE_STATEMENTS = 2;
+    private static final int MAX_INCLUDE_GRANTS_STATEMENTS = 14;
+    private static final int MAX_INCLUDE_ALL_STATEMENTS = 16;
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String key;
+
+    @BeforeAll
+    public void setupSubmissions() throws IOException {
+        key = UUID.randomUUID().toString();
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            Repository repo = new Repository();
+            repo.setName("count repository");
+            client.createObject(repo);
+
+            Policy policy = new Policy();
+            policy.setTitle("count policy");
+            policy.setRepositories(List.of(repo));
+            client.createObject(policy);
+
+            List<Submission> subs = new ArrayList<>();
+
+            for (int i = 0; i < NUM_SUBMISSIONS; i++) {
+                User copi = new User();
+                copi.setDisplayName("copi " + i);
+                copi.setLocatorIds(List.of("count:" + key + ":" + i));
+                client.createObject(copi);
+
+                Grant grant = new Grant();
+                grant.setLocalKey(key + ":" + i);
+                grant.setCoPis(List.of(copi));
+                client.createObject(grant);
+
+                Submission sub = new Submission();
+                sub.setSubmitterName(key);
+                sub.setGrants(List.of(grant));
+                sub.setPreparers(List.of(copi));
+                sub.setRepositories(List.of(repo));
+                sub.setEffectivePolicies(List.of(policy));
+                subs.add(sub);
+            }
+
+            client.createObjects(subs);
+        }
+    }
+
+    // Return the number of statements prepared while answering the query
+    private long count(String query) throws IOException {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        OkHttpClient http = newOkhttpClient();
+
+        Request request = new Request.Builder().url(getBaseUrl() + "data/submission?filter[submission]="
+            + "submitterName=='" + key + "'&page[limit]=" + NUM_SUBMISSIONS + query)
+            .header("Accept", JSON_API_CONTENT_TYPE).header("Authorization", BACKEND_CREDENTIALS).get().build();
+
+        stats.clear();
+
+        try (Response response = http.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+
+        long count = stats.getPrepareStatementCount();
+
+        LOG.info("Submissions {}: {} statements, {} collection fetches", query, count,
+            stats.getCollectionFetchCount());
+
+        return count;
+    }
+
+    @Test
+    public void testListSubmissions() throws IOException {
+        long count = count("");
+
+        assertTrue(count <= MAX_LIST_STATEMENTS, "Statements: " + count);
+    }
+
+    @Test
+    public void testListSubmissionsSparseFields() throws IOException {
+        long sparse = count("&fields[submission]=submitterName,submissionStatus");
+
+        // None of the collection relationships were requested
+        assertEquals(0, entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getCollectionFetchCount());
+        assertTrue(sparse <= MAX_SPARSE_STATEMENTS, "Statements: " + sparse);
+        assertTrue(sparse < count(""));
+    }
+
+    @Test
+    public void testListSubmissionsIncludeGrants() throws IOException {
+        long count = count("&include=grants");
+
+        assertTrue(count <= MAX_INCLUDE_GRANTS_STATEMENTS, "Statements: " + count);
+    }
+
+    @Test
+    public void testListSubmissionsIncludeGrantsAndPreparers() throws IOException {
+        long count = count("&include=grants,preparers,effectivePolicies,repositories");
+
+        assertTrue(count <= MAX_INCLUDE_ALL_STATEMENTS, "Statements: " + count);
+    }
+}
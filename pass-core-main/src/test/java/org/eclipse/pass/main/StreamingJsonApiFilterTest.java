@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.yahoo.elide.RefreshableElide;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.eclipse.pass.object.ElidePassClient;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.model.Funder;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+    "pass.json-api.streaming.enabled=true",
+    "pass.json-api.streaming.chunk-size=3"
+})
+public class StreamingJsonApiFilterTest extends SimpleIntegrationTest {
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    private JSONObject get(OkHttpClient http, String query) throws IOException, JSONException {
+        Request request = new Request.Builder().url(getBaseUrl() + "data/funder?" + query)
+            .header("Accept", JSON_API_CONTENT_TYPE).header("Authorization", BACKEND_CREDENTIALS).get().build();
+
+        try (Response response = http.newCall(request).execute()) {
+            assertEquals(200, response.code());
+            assertEquals(JSON_API_CONTENT_TYPE, response.body().contentType().type() + "/"
+                + response.body().contentType().subtype());
+
+            return new JSONObject(response.body().string());
+        }
+    }
+
+    private List<String> get_ids(JSONObject doc) throws JSONException {
+        List<String> result = new ArrayList<>();
+        JSONArray data = doc.getJSONArray("data");
+
+        for (int i = 0; i < data.length(); i++) {
+            result.add(data.getJSONObject(i).getString("id"));
+        }
+
+        return result;
+    }
+
+    @Test
+    public void testStreamMatchesElide() throws IOException, JSONException {
+        List<Funder> funders = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Funder funder = new Funder();
+            funder.setName("streamed funder");
+            funder.setLocalKey("streamed-" + i);
+            funders.add(funder);
+        }
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            client.createObjects(funders);
+        }
+
+        OkHttpClient http = newOkhttpClient();
+        String filter = "filter[funder]=name=='streamed funder'&sort=-id";
+
+        // A page limit larger than the chunk size is streamed
+        JSONObject first = get(http, filter + "&page[limit]=7&page[totals]");
+        JSONObject second = get(http, filter + "&page[limit]=7&page[offset]=7&page[totals]");
+
+        List<String> streamed = get_ids(first);
+        streamed.addAll(get_ids(second));
+
+        assertEquals(10, streamed.size());
+
+        JSONObject page = first.getJSONObject("meta").getJSONObject("page");
+        assertEquals(10, page.getInt("totalRecords"));
+        assertEquals(2, page.getInt("totalPages"));
+        assertEquals(7, page.getInt("limit"));
+        assertEquals(1, page.getInt("number"));
+
+        // Pages no larger than the chunk size are answered by Elide
+        List<String> expected = new ArrayList<>();
+
+        for (int offset = 0; offset < 10; offset += 3) {
+            expected.addAll(get_ids(get(http, filter + "&page[limit]=3&page[offset]=" + offset)));
+        }
+
+        assertEquals(expected, streamed);
+
+        JSONObject resource = first.getJSONArray("data").getJSONObject(0);
+        assertEquals("funder", resource.getString("type"));
+        assertEquals("streamed funder", resource.getJSONObject("attributes").getString("name"));
+        assertTrue(resource.getJSONObject("relationships").has("policy"));
+    }
+
+    @Test
+    public void testStreamWithNonUniqueSort() throws IOException, JSONException {
+        List<Funder> funders = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Funder funder = new Funder();
+            funder.setName("same name funder");
+            funder.setLocalKey("same-" + i);
+            funders.add(funder);
+        }
+
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            client.createObjects(funders);
+        }
+
+        // Every chunk sees the objects in the same order so none are skipped or repeated
+        List<String> streamed = get_ids(get(newOkhttpClient(),
+            "filter[funder]=name=='same name funder'&sort=name&page[limit]=10"));
+
+        List<String> expected = funders.stream().map(f -> f.getId().toString()).sorted(
+            Comparator.comparingLong(Long::parseLong)).collect(Collectors.toList());
+
+        assertEquals(expected, streamed);
+    }
+}
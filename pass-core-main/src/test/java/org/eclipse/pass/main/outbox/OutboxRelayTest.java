@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.pass.main.SimpleIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drain the outbox with test senders. The relay of the application only polls at startup.
+ */
+@TestPropertySource(properties = {
+    "pass.jms.outbox.poll-interval=3600000"
+})
+public class OutboxRelayTest extends SimpleIntegrationTest {
+    private static final String QUEUE = "outbox-test";
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    public void clearOutbox() {
+        jdbc.update("DELETE FROM " + Outbox.TABLE);
+        registry = new SimpleMeterRegistry();
+    }
+
+    private void add_messages(int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                outbox.add(QUEUE, "test", "message " + i);
+            }
+        });
+    }
+
+    private OutboxRelay relay(OutboxSender sender, int batchSize) {
+        // Failed messages are retried immediately
+        return new OutboxRelay(jdbc, transactionManager, sender, registry, batchSize, 0, 0);
+    }
+
+    private int count_outbox() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + Outbox.TABLE, Integer.class);
+    }
+
+    @Test
+    public void testRollbackAddsNoMessage() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outbox.add(QUEUE, "test", "rolled back");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, count_outbox());
+    }
+
+    @Test
+    public void testDrainInBatches() {
+        List<List<String>> batches = new ArrayList<>();
+
+        OutboxRelay relay = relay((queue, messages) -> {
+            batches.add(messages.stream().map(OutboxMessage::text).toList());
+            return messages.stream().map(OutboxMessage::id).collect(Collectors.toSet());
+        }, 10);
+
+        add_messages(25);
+
+        assertEquals(25, relay.drain());
+        assertEquals(0, count_outbox());
+        assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+        assertEquals("message 0", batches.get(0).get(0));
+        assertEquals("message 24", batches.get(2).get(4));
+        assertEquals(25, registry.get("pass.outbox.sent").tag("queue", QUEUE).counter().count());
+        assertEquals(25, registry.get("pass.outbox.lag").timer().count());
+        assertEquals(0, registry.get("pass.outbox.pending").gauge().value());
+    }
+
+    @Test
+    public void testRetryFailedSend() {
+        List<Integer> calls = new ArrayList<>();
+
+        OutboxRelay relay = relay((queue, messages) -> {
+            calls.add(messages.size());
+
+            if (calls.size() == 1) {
+                throw new IllegalStateException("Broker unavailable");
+            }
+
+            // Only the first message is accepted on the second attempt
+            return calls.size() == 2 ? Set.of(messages.get(0).id())
+                : messages.stream().map(OutboxMessage::id).collect(Collectors.toSet());
+        }, 10);
+
+        add_messages(3);
+
+        assertEquals(0, relay.drain());
+        assertEquals(3, count_outbox());
+        assertEquals(List.of(1), jdbc.queryForList("SELECT DISTINCT attempts FROM " + Outbox.TABLE,
+            Integer.class));
+        assertEquals(3, registry.get("pass.outbox.failed").tag("queue", QUEUE).counter().count());
+
+        assertEquals(1, relay.drain());
+        assertEquals(2, count_outbox());
+
+        assertEquals(2, relay.drain());
+        assertEquals(0, count_outbox());
+        assertEquals(List.of(3, 3, 2), calls);
+        assertEquals(3, registry.get("pass.outbox.sent").tag("queue", QUEUE).counter().count());
+        assertEquals(5, registry.get("pass.outbox.failed").tag("queue", QUEUE).counter().count());
+    }
+}
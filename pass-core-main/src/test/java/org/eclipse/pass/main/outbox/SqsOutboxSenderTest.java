@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+public class SqsOutboxSenderTest {
+    @Test
+    public void testSendInBatches() {
+        SqsClient sqs = mock(SqsClient.class);
+
+        when(sqs.getQueueUrl(any(GetQueueUrlRequest.class))).thenReturn(
+            GetQueueUrlResponse.builder().queueUrl("http://sqs/queue").build());
+
+        // Fail the first message of each batch
+        when(sqs.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(i -> {
+            List<SendMessageBatchRequestEntry> entries = i.getArgument(0, SendMessageBatchRequest.class).entries();
+
+            return SendMessageBatchResponse.builder()
+                .failed(BatchResultErrorEntry.builder().id(entries.get(0).id()).code("Error").build())
+                .successful(entries.stream().skip(1).map(e -> SendMessageBatchResultEntry.builder().id(e.id())
+                    .build()).toList()).build();
+        });
+
+        List<OutboxMessage> messages = IntStream.range(0, 25).mapToObj(i ->
+            new OutboxMessage(i, "queue", "test", "message " + i, 0, Instant.now())).toList();
+
+        Set<Long> sent = new SqsOutboxSender(sqs).send("queue", messages);
+
+        ArgumentCaptor<SendMessageBatchRequest> requests = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqs, times(3)).sendMessageBatch(requests.capture());
+        verify(sqs, times(1)).getQueueUrl(any(GetQueueUrlRequest.class));
+
+        assertEquals(List.of(10, 10, 5), requests.getAllValues().stream().map(r -> r.entries().size()).toList());
+        assertEquals("http://sqs/queue", requests.getValue().queueUrl());
+        assertEquals("test", requests.getValue().entries().get(0).messageAttributes()
+            .get(OutboxSender.TYPE_PROPERTY).stringValue());
+
+        assertEquals(22, sent.size());
+        assertFalse(sent.contains(0L));
+        assertFalse(sent.contains(10L));
+        assertFalse(sent.contains(20L));
+    }
+}
@@ -28,6 +28,7 @@ import java.util.List;
 import okhttp3.Cookie;
 import okhttp3.Credentials;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -37,6 +38,7 @@ import org.eclipse.pass.object.model.Grant;
 import org.eclipse.pass.object.model.Source;
 import org.eclipse.pass.object.model.Submission;
 import org.eclipse.pass.object.model.User;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
@@ -45,6 +47,8 @@ import org.junit.jupiter.api.Test;
  * Ensure that HTTP requests are authenticated and authorized appropriately.
  */
 public class AccessControlTest extends SamlIntegrationTest {
+    private static final String ATOMIC_OPERATIONS_CONTENT_TYPE =
+        "application/vnd.api+json; ext=\"https://jsonapi.org/ext/atomic\"";
 
     // Check the HTTP response code and try to return the JSON result
     private JSONObject check(Response response, int code) throws IOException {
@@ -247,6 +251,56 @@ public class AccessControlTest extends SamlIntegrationTest {
         }
     }
 
+    // Send a JSON API atomic operations request adding each object
+    private Response add_atomic(JSONObject... objs) throws IOException, JSONException {
+        String url = getBaseUrl() + "data/operations";
+        JSONObject doc = new JSONObject();
+        JSONArray ops = new JSONArray();
+
+        for (JSONObject obj : objs) {
+            JSONObject op = new JSONObject();
+            op.put("op", "add");
+            op.put("data", obj.getJSONObject("data"));
+            ops.put(op);
+        }
+
+        doc.put("atomic:operations", ops);
+
+        RequestBody body = RequestBody.create(doc.toString(), MediaType.parse(ATOMIC_OPERATIONS_CONTENT_TYPE));
+        Request request = new Request.Builder().url(url).header("Accept", ATOMIC_OPERATIONS_CONTENT_TYPE)
+                .header("Content-Type", ATOMIC_OPERATIONS_CONTENT_TYPE)
+                .header("X-XSRF-TOKEN", getCsrfToken())
+                .post(body).build();
+
+        return client.newCall(request).execute();
+    }
+
+    @Test
+    public void testAtomicOperationsAsShibUser() throws IOException, JSONException {
+        User submitter = doSamlLogin();
+
+        JSONObject sub1 = pass_object("submission");
+        set_attribute(sub1, "submitterName", "Person Personson");
+        set_relationship(sub1, "submitter", "user", submitter.getId().toString());
+
+        JSONObject sub2 = pass_object("submission");
+        set_attribute(sub2, "submitterName", "Major Major");
+        set_relationship(sub2, "submitter", "user", submitter.getId().toString());
+
+        JSONObject result = check(add_atomic(sub1, sub2), 200);
+        JSONArray results = result.getJSONArray("atomic:results");
+
+        assertEquals(2, results.length());
+        assertNotNull(results.getJSONObject(0).getJSONObject("data").getString("id"));
+        assertNotNull(results.getJSONObject(1).getJSONObject("data").getString("id"));
+
+        // The whole request fails if one operation is not allowed
+        JSONObject grant = pass_object("grant");
+        set_attribute(grant, "projectName", "This is a test");
+
+        check(add_atomic(sub1, grant), 403);
+    }
+
     @Test
     public void testCreateUpdateDeleteSubmissionAsShibUserWithBadCsrfToken() throws IOException, JSONException {
         doSamlLogin();
@@ -3,6 +3,7 @@ package org.eclipse.pass.main.security;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -12,6 +13,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Request;
+import okhttp3.Response;
 import org.eclipse.pass.main.SamlIntegrationTest;
 import org.eclipse.pass.object.PassClient;
 import org.eclipse.pass.object.model.User;
@@ -24,6 +28,14 @@ public class PassAuthenticationFilterTest extends SamlIntegrationTest {
     @Autowired
     private PassAuthenticationFilter passAuthFilter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double count_cache_gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "pass.auth.cache", "result", result).functionCounter()
+            .count();
+    }
+
     @Test
     public void testLoggedInUser() throws IOException {
         User submitter = doSamlLogin();
@@ -75,6 +87,40 @@ public class PassAuthenticationFilterTest extends SamlIntegrationTest {
         assertEquals(submitter, result);
     }
 
+    @Test
+    public void testLoginCached() throws IOException {
+        User submitter = doSamlLogin();
+
+        // Change the user so that a lookup of the user would undo the change
+        User updated = new User(submitter);
+        updated.setDisplayName("Moo");
+
+        try (PassClient pass_client = PassClient.newInstance(refreshableElide)) {
+            pass_client.updateObject(updated);
+        }
+
+        double hits = count_cache_gets("hit");
+        double misses = count_cache_gets("miss");
+
+        for (int i = 0; i < 3; i++) {
+            Request request = new Request.Builder().url(getBaseUrl() + "data/grant")
+                .header("Accept", JSON_API_CONTENT_TYPE).get().build();
+
+            try (Response response = client.newCall(request).execute()) {
+                assertEquals(200, response.code());
+            }
+        }
+
+        assertEquals(hits + 3, count_cache_gets("hit"));
+        assertEquals(misses, count_cache_gets("miss"));
+
+        try (PassClient pass_client = PassClient.newInstance(refreshableElide)) {
+            assertEquals("Moo", pass_client.getObject(User.class, submitter.getId()).getDisplayName());
+        }
+
+        assertTrue(meterRegistry.get("pass.auth.filter").timer().count() > 0);
+    }
+
     @Test
     public void testParseUser() {
         Map<String, List<Object>> attributes = new HashMap<>();
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.main.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+import com.yahoo.elide.RefreshableElide;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.pass.main.SimpleIntegrationTest;
+import org.eclipse.pass.object.PassClient;
+import org.eclipse.pass.object.PassClientSelector;
+import org.eclipse.pass.object.RSQL;
+import org.eclipse.pass.object.model.User;
+import org.eclipse.pass.object.model.UserRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Provision users from many concurrent first logins. Separate filters act as separate nodes which do not share
+ * locks.
+ */
+public class UserProvisioningTest extends SimpleIntegrationTest {
+    private static final int USERS = 8;
+    private static final int LOGINS_PER_USER = 6;
+    private static final int NODES = 2;
+
+    @Autowired
+    private RefreshableElide refreshableElide;
+
+    @Autowired
+    private PassAuthenticationFilterConfiguration config;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(USERS * LOGINS_PER_USER);
+
+    @AfterAll
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PassAuthenticationFilter new_node() {
+        return new PassAuthenticationFilter(refreshableElide, config, new SimpleMeterRegistry());
+    }
+
+    private static String unique_id(String run, int i) {
+        return "provision.edu:unique-id:" + run + "-" + i;
+    }
+
+    // User as parsed from the IDP attributes of a login
+    private static User login_user(String run, int i) {
+        User user = new User();
+        user.setUsername("user" + i + "-" + run + "@provision.edu");
+        user.setDisplayName("User " + i);
+        user.setEmail("user" + i + "@provision.edu");
+        user.setLocatorIds(List.of(unique_id(run, i), "provision.edu:eppn:" + run + "-" + i));
+        user.setRoles(List.of(UserRole.SUBMITTER));
+
+        return user;
+    }
+
+    private int count_users(String locator_id) throws IOException {
+        try (PassClient client = PassClient.newInstance(refreshableElide)) {
+            PassClientSelector<User> selector = new PassClientSelector<>(User.class);
+            selector.setFilter(RSQL.hasMember("locatorIds", locator_id));
+
+            return client.selectObjects(selector).getObjects().size();
+        }
+    }
+
+    @Test
+    public void testConcurrentFirstLogins() throws Exception {
+        String run = UUID.randomUUID().toString();
+        List<PassAuthenticationFilter> nodes = new ArrayList<>();
+
+        for (int n = 0; n < NODES; n++) {
+            nodes.add(new_node());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> logins = new ArrayList<>();
+
+        for (int i = 0; i < USERS; i++) {
+            for (int j = 0; j < LOGINS_PER_USER; j++) {
+                PassAuthenticationFilter node = nodes.get(j % NODES);
+                User user = login_user(run, i);
+
+                logins.add(executor.submit(() -> {
+                    start.await();
+                    node.createOrUpdatePassUser(user);
+                    return null;
+                }));
+            }
+        }
+
+        start.countDown();
+
+        for (Future<?> login : logins) {
+            login.get(2, TimeUnit.MINUTES);
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            assertEquals(1, count_users(unique_id(run, i)));
+        }
+
+        // The database rejects a locator id belonging to another user
+        Long user_id = jdbc.queryForObject("SELECT user_id FROM pass_user_locators WHERE locatorids = ?",
+            Long.class, unique_id(run, 1));
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+            "INSERT INTO pass_user_locators (user_id, locatorids) VALUES (?, ?)", user_id, unique_id(run, 0)));
+    }
+
+    @Test
+    public void testLoginsOfDifferentUsersDoNotWait() throws Exception {
+        String run = UUID.randomUUID().toString();
+        PassAuthenticationFilter node = new_node();
+
+        User waiting = login_user(run, 0);
+        Lock lock = node.getLock(unique_id(run, 0));
+
+        // Find a user whose logins use a different lock
+        int i = 1;
+
+        while (node.getLock(unique_id(run, i)) == lock) {
+            i++;
+        }
+
+        User other = login_user(run, i);
+        assertNotSame(lock, node.getLock(unique_id(run, i)));
+
+        lock.lock();
+        Future<?> waiting_login;
+
+        try {
+            waiting_login = executor.submit(() -> {
+                node.createOrUpdatePassUser(waiting);
+                return null;
+            });
+
+            executor.submit(() -> {
+                node.createOrUpdatePassUser(other);
+                return null;
+            }).get(1, TimeUnit.MINUTES);
+
+            assertThrows(TimeoutException.class, () -> waiting_login.get(500, TimeUnit.MILLISECONDS));
+        } finally {
+            lock.unlock();
+        }
+
+        waiting_login.get(1, TimeUnit.MINUTES);
+
+        assertEquals(1, count_users(unique_id(run, 0)));
+        assertEquals(1, count_users(unique_id(run, i)));
+    }
+
+    @Test
+    public void testLoginLooksUpUserWithOneQuery() throws Exception {
+        String run = UUID.randomUUID().toString();
+        PassAuthenticationFilter node = new_node();
+
+        // Only the last locator id of the user matches
+        User user = login_user(run, 0);
+        user.setLocatorIds(List.of(user.getLocatorIds().get(1)));
+        node.createOrUpdatePassUser(user);
+
+        User login = login_user(run, 0);
+        login.setLocatorIds(List.of(unique_id(run, 0) + ":new", user.getLocatorIds().get(0)));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        node.createOrUpdatePassUser(login);
+
+        // Lookups of users by locator id
+        long lookups = Arrays.stream(stats.getQueries()).filter(q -> q.contains("member_owner"))
+            .mapToLong(q -> stats.getQueryStatistics(q).getExecutionCount()).sum();
+
+        assertEquals(1, lookups);
+        assertEquals(1, count_users(unique_id(run, 0) + ":new"));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.eclipse.pass.object.model.Deposit;
+import org.eclipse.pass.object.model.DepositStatus;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Run the PassClient tests against the DataStorePassClient.
+ */
+public class DataStorePassClientTest extends ElidePassClientTest {
+    @Override
+    protected PassClient getNewClient() {
+        return new DataStorePassClient(refreshableElide);
+    }
+
+    @Override
+    protected void assertOptimisticLockFailure(IOException ioException, String type, long requestVersion,
+                                               long storedVersion) {
+        assertTrue(ioException.getMessage().startsWith("Failed to update object: 409 " +
+            "Optimistic lock check failed for " + type + " [ID="));
+        assertTrue(ioException.getMessage().endsWith("]. Request version: " + requestVersion +
+            ", Stored version: " + storedVersion));
+    }
+
+    @Test
+    public void testGetObjectMatchesElideClient() throws IOException {
+        Deposit deposit = new Deposit();
+        deposit.setDepositStatus(DepositStatus.SUBMITTED);
+        client.createObject(deposit);
+
+        try (PassClient elideClient = new ElidePassClient(refreshableElide)) {
+            Deposit expected = elideClient.getObject(Deposit.class, deposit.getId());
+            Deposit actual = client.getObject(Deposit.class, deposit.getId());
+
+            assertEquals(expected, actual);
+            assertEquals(expected.getVersion(), actual.getVersion());
+        }
+    }
+}
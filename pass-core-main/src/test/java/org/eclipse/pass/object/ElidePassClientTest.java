@@ -25,9 +25,11 @@ import java.io.IOException;
 import java.net.URI;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.yahoo.elide.RefreshableElide;
 import org.eclipse.pass.main.SimpleIntegrationTest;
@@ -38,7 +40,9 @@ import org.eclipse.pass.object.model.Funder;
 import org.eclipse.pass.object.model.Grant;
 import org.eclipse.pass.object.model.Journal;
 import org.eclipse.pass.object.model.PmcParticipation;
+import org.eclipse.pass.object.model.Policy;
 import org.eclipse.pass.object.model.Publication;
+import org.eclipse.pass.object.model.Repository;
 import org.eclipse.pass.object.model.RepositoryCopy;
 import org.eclipse.pass.object.model.Source;
 import org.eclipse.pass.object.model.Submission;
@@ -187,6 +191,62 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
         assertNull(test);
     }
 
+    @Test
+    public void testBatchObjects() throws IOException {
+        String key = "key: " + UUID.randomUUID();
+        List<Funder> funders = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Funder funder = new Funder();
+            funder.setName("funder " + i);
+            funder.setLocalKey(key);
+            funders.add(funder);
+        }
+
+        client.createObjects(funders);
+
+        funders.forEach(f -> assertNotNull(f.getId()));
+        for (Funder f : funders) {
+            assertEquals(f, client.getObject(Funder.class, f.getId()));
+        }
+
+        funders.forEach(f -> f.setUrl(URI.create("https://example.com/" + f.getId())));
+        client.updateObjects(funders);
+
+        for (Funder f : funders) {
+            assertEquals(f.getUrl(), client.getObject(Funder.class, f.getId()).getUrl());
+        }
+
+        client.deleteObjects(funders);
+
+        for (Funder f : funders) {
+            assertNull(client.getObject(Funder.class, f.getId()));
+        }
+    }
+
+    @Test
+    public void testBatchObjectsIsAtomic() throws IOException {
+        Deposit dep1 = new Deposit();
+        dep1.setDepositStatus(DepositStatus.SUBMITTED);
+        Deposit dep2 = new Deposit();
+        dep2.setDepositStatus(DepositStatus.SUBMITTED);
+
+        client.createObjects(List.of(dep1, dep2));
+
+        // Make the version of the second deposit stale
+        Deposit stale = new Deposit(dep2);
+        dep2.setDepositStatus(DepositStatus.FAILED);
+        client.updateObject(dep2);
+
+        dep1.setDepositStatus(DepositStatus.ACCEPTED);
+        stale.setDepositStatus(DepositStatus.ACCEPTED);
+
+        assertThrows(IOException.class, () -> client.updateObjects(List.of(dep1, stale)));
+
+        assertEquals(DepositStatus.SUBMITTED, client.getObject(Deposit.class, dep1.getId()).getDepositStatus());
+        assertEquals(DepositStatus.FAILED, client.getObject(Deposit.class, dep2.getId()).getDepositStatus());
+    }
+
     @Test
     public void testSelectObjects() throws IOException {
         int num_grants = 10;
@@ -249,6 +309,90 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
         assertEquals(result.getObjects().get(0).getAwardNumber(), "award:3");
     }
 
+    @Test
+    public void testSelectObjectsSparseFields() throws IOException {
+        User pi = new User();
+        pi.setDisplayName("Sparse Person");
+        client.createObject(pi);
+
+        String key = "key: " + UUID.randomUUID();
+        Grant grant = new Grant();
+        grant.setAwardNumber("sparse");
+        grant.setLocalKey(key);
+        grant.setPi(pi);
+        client.createObject(grant);
+
+        PassClientSelector<Grant> selector = new PassClientSelector<>(Grant.class);
+        selector.setFilter(RSQL.equals("localKey", key));
+        selector.setFields(Grant.class, "awardNumber", "pi");
+        selector.setFields(User.class, "displayName");
+        selector.setInclude("pi");
+
+        PassClientResult<Grant> result = client.selectObjects(selector);
+
+        assertEquals(1, result.getObjects().size());
+        assertEquals(grant.getId(), result.getObjects().get(0).getId());
+        assertEquals("sparse", result.getObjects().get(0).getAwardNumber());
+        assertEquals("Sparse Person", result.getObjects().get(0).getPi().getDisplayName());
+    }
+
+    @Test
+    public void testNestedCollectionsLoaded() throws IOException {
+        String key = "key: " + UUID.randomUUID();
+
+        User copi = new User();
+        copi.setDisplayName("Nested Copi");
+        copi.setLocatorIds(List.of("nested:" + key));
+        client.createObject(copi);
+
+        Grant grant = new Grant();
+        grant.setLocalKey(key);
+        grant.getCoPis().add(copi);
+        client.createObject(grant);
+
+        Repository repo = new Repository();
+        repo.setName("Nested Repository");
+        client.createObject(repo);
+
+        Policy policy = new Policy();
+        policy.setTitle("Nested Policy");
+        policy.getRepositories().add(repo);
+        client.createObject(policy);
+
+        Submission sub = new Submission();
+        sub.setSubmitterName(key);
+        sub.setSubmitter(copi);
+        sub.getGrants().add(grant);
+        sub.getEffectivePolicies().add(policy);
+        client.createObject(sub);
+
+        Deposit deposit = new Deposit();
+        deposit.setSubmission(sub);
+        client.createObject(deposit);
+
+        refreshClient();
+
+        Submission test = client.getObject(Submission.class, sub.getId());
+        PassClientResult<Submission> result = client.selectObjects(new PassClientSelector<>(Submission.class, 0,
+            10, RSQL.equals("submitterName", key), null));
+        Deposit test_deposit = client.getObject(Deposit.class, deposit.getId());
+
+        client.close();
+
+        assertEquals(1, result.getObjects().size());
+
+        // The transactions which retrieved the objects have ended
+        for (Submission s : List.of(test, result.getObjects().get(0), test_deposit.getSubmission())) {
+            assertEquals(List.of("nested:" + key), s.getGrants().get(0).getCoPis().get(0).getLocatorIds());
+            assertEquals(List.of("nested:" + key), s.getSubmitter().getLocatorIds());
+            assertEquals("Nested Repository", s.getEffectivePolicies().get(0).getRepositories().get(0).getName());
+            assertNotNull(s.getGrants().get(0).toString());
+        }
+
+        // Grants retrieved in different transactions compare their co-PIs
+        assertEquals(test.getGrants().get(0), result.getObjects().get(0).getGrants().get(0));
+    }
+
     @Test
     public void testStreamObjects() throws IOException {
         List<Journal> journals = new ArrayList<>();
@@ -293,6 +437,114 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
         });
     }
 
+    @Test
+    public void testSelectObjectsAfter() throws IOException {
+        String key = "key: " + UUID.randomUUID();
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Funder funder = new Funder();
+            funder.setName("funder " + i);
+            funder.setLocalKey(key);
+
+            client.createObject(funder);
+            ids.add(funder.getId());
+        }
+
+        PassClientSelector<Funder> selector = new PassClientSelector<>(Funder.class, 100, 2,
+            RSQL.equals("localKey", key), "-name");
+        selector.setAfter(ids.get(1));
+
+        PassClientResult<Funder> result = client.selectObjects(selector);
+
+        // Offset and sorting are ignored and no total is computed
+        assertEquals(-1, result.getTotal());
+        assertEquals(List.of(ids.get(2), ids.get(3)),
+            result.getObjects().stream().map(Funder::getId).collect(Collectors.toList()));
+
+        selector.setAfter(ids.get(4));
+        assertEquals(0, client.selectObjects(selector).getObjects().size());
+    }
+
+    @Test
+    public void testStreamObjectsFromOffset() throws IOException {
+        String key = "key: " + UUID.randomUUID();
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < 7; i++) {
+            Funder funder = new Funder();
+            funder.setName("funder " + i);
+            funder.setLocalKey(key);
+
+            client.createObject(funder);
+            ids.add(funder.getId());
+        }
+
+        List<Long> result = client.streamObjects(new PassClientSelector<>(Funder.class, 3, 2,
+            RSQL.equals("localKey", key), null)).map(Funder::getId).collect(Collectors.toList());
+
+        assertEquals(ids.subList(3, 7), result);
+    }
+
+    @Test
+    public void testStreamObjectsPrefetchAndParallel() throws IOException {
+        String key = "key: " + UUID.randomUUID();
+        List<Long> ids = new ArrayList<>();
+
+        for (int i = 0; i < 25; i++) {
+            Funder funder = new Funder();
+            funder.setName("funder " + i);
+            funder.setLocalKey(key);
+
+            client.createObject(funder);
+            ids.add(funder.getId());
+        }
+
+        PassClientSelector<Funder> selector = new PassClientSelector<>(Funder.class, 0, 2,
+            RSQL.equals("localKey", key), null);
+
+        List<Long> result = client.streamObjects(selector, 3).map(Funder::getId).collect(Collectors.toList());
+        assertEquals(ids, result);
+
+        result = client.streamObjects(selector, 2).parallel().map(Funder::getId).sorted()
+            .collect(Collectors.toList());
+        assertEquals(ids, result);
+
+        // Selector is not modified by streaming
+        assertNull(selector.getAfter());
+        assertEquals(0, selector.getOffset());
+    }
+
+    @Test
+    public void testStreamObjectsClose() throws IOException {
+        String key = "key: " + UUID.randomUUID();
+
+        for (int i = 0; i < 10; i++) {
+            Funder funder = new Funder();
+            funder.setName("funder " + i);
+            funder.setLocalKey(key);
+
+            client.createObject(funder);
+        }
+
+        PassClientSelector<Funder> selector = new PassClientSelector<>(Funder.class, 0, 2,
+            RSQL.equals("localKey", key), null);
+
+        try (Stream<Funder> stream = client.streamObjects(selector, 3)) {
+            Iterator<Funder> iter = stream.iterator();
+
+            assertTrue(iter.hasNext());
+            assertNotNull(iter.next());
+        }
+
+        // No pages are retrieved once the stream is closed
+        Stream<Funder> stream = client.streamObjects(selector, 3);
+        Iterator<Funder> iter = stream.iterator();
+        stream.close();
+
+        assertThrows(IllegalStateException.class, iter::hasNext);
+    }
+
     @Test
     public void testHasMember() throws IOException {
         User user = new User();
@@ -359,7 +611,9 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
         user.setDisplayName("Listy Lister");
 
         user.setRoles(List.of(UserRole.ADMIN, UserRole.SUBMITTER));
-        user.setLocatorIds(List.of("test1", "test2"));
+        // Locator ids are unique and this test is run by subclasses against the same database
+        String suffix = UUID.randomUUID().toString();
+        user.setLocatorIds(List.of("test1:" + suffix, "test2:" + suffix));
 
         client.createObject(user);
 
@@ -462,9 +716,7 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
             client.updateObject(updateSub2);
         });
 
-        assertTrue(ioException.getMessage().startsWith("Failed to update object: 409 " +
-            "{\"errors\":[{\"detail\":\"Optimistic lock check failed for Submission [ID="));
-        assertTrue(ioException.getMessage().endsWith("]. Request version: 1, Stored version: 2\"}]}"));
+        assertOptimisticLockFailure(ioException, "Submission", 1, 2);
     }
 
     @Test
@@ -492,9 +744,7 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
             client.updateObject(updateSub2);
         });
 
-        assertTrue(ioException.getMessage().startsWith("Failed to update object: 409 " +
-            "{\"errors\":[{\"detail\":\"Optimistic lock check failed for Submission [ID="));
-        assertTrue(ioException.getMessage().endsWith("]. Request version: -1, Stored version: 2\"}]}"));
+        assertOptimisticLockFailure(ioException, "Submission", -1, 2);
     }
 
     @Test
@@ -518,9 +768,7 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
             client.updateObject(updateDep2);
         });
 
-        assertTrue(ioException.getMessage().startsWith("Failed to update object: 409 " +
-            "{\"errors\":[{\"detail\":\"Optimistic lock check failed for Deposit [ID="));
-        assertTrue(ioException.getMessage().endsWith("]. Request version: 1, Stored version: 2\"}]}"));
+        assertOptimisticLockFailure(ioException, "Deposit", 1, 2);
     }
 
     @Test
@@ -543,9 +791,7 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
             client.updateObject(updateDep2);
         });
 
-        assertTrue(ioException.getMessage().startsWith("Failed to update object: 409 " +
-            "{\"errors\":[{\"detail\":\"Optimistic lock check failed for Deposit [ID="));
-        assertTrue(ioException.getMessage().endsWith("]. Request version: -1, Stored version: 2\"}]}"));
+        assertOptimisticLockFailure(ioException, "Deposit", -1, 2);
     }
 
     @Test
@@ -566,4 +812,20 @@ public class ElidePassClientTest extends SimpleIntegrationTest {
         assertEquals(DepositStatus.FAILED, updateDep1.getDepositStatus());
         assertEquals(1, updateDep1.getVersion());
     }
+
+    /**
+     * Check that the exception reports a failed optimistic lock check for an update.
+     *
+     * @param ioException exception thrown by the client
+     * @param type entity type
+     * @param requestVersion version sent in the update
+     * @param storedVersion version in the repository
+     */
+    protected void assertOptimisticLockFailure(IOException ioException, String type, long requestVersion,
+                                               long storedVersion) {
+        assertTrue(ioException.getMessage().startsWith("Failed to update object: 409 " +
+            "{\"errors\":[{\"detail\":\"Optimistic lock check failed for " + type + " [ID="));
+        assertTrue(ioException.getMessage().endsWith("]. Request version: " + requestVersion +
+            ", Stored version: " + storedVersion + "\"}]}"));
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.yahoo.elide.RefreshableElide;
+import org.eclipse.pass.main.Benchmark;
+import org.eclipse.pass.main.SimpleIntegrationTest;
+import org.eclipse.pass.object.model.Grant;
+import org.eclipse.pass.object.model.Submission;
+import org.eclipse.pass.object.model.SubmissionStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Compare the ElidePassClient and DataStorePassClient. Run with -Dpass.benchmark=true.
+ */
+@EnabledIfSystemProperty(named = Benchmark.PROPERTY, matches = "true")
+public class PassClientBenchmarkTest extends SimpleIntegrationTest {
+    private static final int WARMUP = 200;
+    private static final int RUNS = 1000;
+    private static final int STREAM_OBJECTS = Integer.getInteger("pass.benchmark.stream-objects", 20000);
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    protected RefreshableElide refreshableElide;
+
+    private final List<Long> submissionIds = new ArrayList<>();
+
+    @BeforeAll
+    public void setupSubmissions() throws IOException {
+        try (PassClient client = new DataStorePassClient(refreshableElide)) {
+            Grant grant = new Grant();
+            grant.setAwardNumber("benchmark");
+            client.createObject(grant);
+
+            for (int i = 0; i < 100; i++) {
+                Submission sub = new Submission();
+                sub.setSubmitterName("benchmark " + i);
+                sub.setSubmissionStatus(SubmissionStatus.DRAFT);
+                sub.setGrants(List.of(grant));
+                client.createObject(sub);
+                submissionIds.add(sub.getId());
+            }
+        }
+    }
+
+    private void benchmark(String name, PassClient client) throws Exception {
+        Benchmark.run(name + " getObject", WARMUP, RUNS, i -> {
+            Long id = submissionIds.get(i % submissionIds.size());
+            assertNotNull(client.getObject(Submission.class, id));
+        });
+
+        Benchmark.run(name + " selectObjects", WARMUP / 10, RUNS / 10, i -> {
+            PassClientSelector<Submission> selector = new PassClientSelector<>(Submission.class);
+            selector.setFilter(RSQL.equals("submitterName", "benchmark " + (i % submissionIds.size())));
+            assertNotNull(client.selectObjects(selector));
+        });
+
+        Benchmark.run(name + " createObject", WARMUP / 10, RUNS / 10, i -> {
+            Submission sub = new Submission();
+            sub.setSubmitterName("benchmark create " + i);
+            sub.setSubmissionStatus(SubmissionStatus.DRAFT);
+            client.createObject(sub);
+        });
+
+        Benchmark.run(name + " updateObject", WARMUP / 10, RUNS / 10, i -> {
+            Submission sub = client.getObject(Submission.class, submissionIds.get(i % submissionIds.size()));
+            sub.setSubmitterEmail(URI.create("mailto:benchmark" + i + "@example.com"));
+            client.updateObject(sub);
+        });
+    }
+
+    @Test
+    public void benchmarkElidePassClient() throws Exception {
+        try (PassClient client = new ElidePassClient(refreshableElide)) {
+            benchmark("ElidePassClient", client);
+        }
+    }
+
+    @Test
+    public void benchmarkDataStorePassClient() throws Exception {
+        try (PassClient client = new DataStorePassClient(refreshableElide)) {
+            benchmark("DataStorePassClient", client);
+        }
+    }
+
+    /**
+     * Report the latency of each page when walking a large table with offset pagination and keyset pagination.
+     */
+    @Test
+    public void benchmarkStreamPages() throws Exception {
+        String key = "benchmark:" + UUID.randomUUID();
+        int pages = STREAM_OBJECTS / PAGE_SIZE;
+
+        try (PassClient client = new DataStorePassClient(refreshableElide)) {
+            for (int i = 0; i < STREAM_OBJECTS; i++) {
+                Grant grant = new Grant();
+                grant.setAwardNumber("stream " + i);
+                grant.setLocalKey(key);
+                client.createObject(grant);
+            }
+
+            String filter = RSQL.equals("localKey", key);
+
+            Benchmark.run("offset page", 0, pages, i -> {
+                PassClientSelector<Grant> selector = new PassClientSelector<>(Grant.class, i * PAGE_SIZE,
+                    PAGE_SIZE, filter, "id");
+                assertEquals(PAGE_SIZE, client.selectObjects(selector).getObjects().size());
+            });
+
+            PassClientSelector<Grant> selector = new PassClientSelector<>(Grant.class, 0, PAGE_SIZE, filter, null);
+            selector.setAfter(0L);
+
+            Benchmark.run("keyset page", 0, pages, i -> {
+                List<Grant> page = client.selectObjects(selector).getObjects();
+                assertEquals(PAGE_SIZE, page.size());
+                selector.setAfter(page.get(page.size() - 1).getId());
+            });
+        }
+    }
+}
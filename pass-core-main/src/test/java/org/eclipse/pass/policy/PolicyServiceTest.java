@@ -23,6 +23,7 @@ import java.net.URI;
 import java.util.ArrayList;
 
 import com.yahoo.elide.RefreshableElide;
+import jakarta.persistence.EntityManagerFactory;
 import okhttp3.Call;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
@@ -37,6 +38,9 @@ import org.eclipse.pass.object.model.Repository;
 import org.eclipse.pass.object.model.Source;
 import org.eclipse.pass.object.model.Submission;
 import org.eclipse.pass.object.model.SubmissionStatus;
+import org.eclipse.pass.object.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -55,6 +59,9 @@ public class PolicyServiceTest extends SamlIntegrationTest {
     @Autowired
     protected RefreshableElide refreshableElide;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Submission submission;
     private final Repository repository1 = new Repository();
     private final Repository repository2 = new Repository();
@@ -290,6 +297,96 @@ public class PolicyServiceTest extends SamlIntegrationTest {
         }
     }
 
+    /**
+     * Tests that repeated requests for the policies of a submission are answered from the cache without querying
+     * the data store and that a change to a grant of the submission is seen.
+     *
+     * @throws IOException if the connection to the datastore fails
+     * @throws JSONException if a JSON assignment is invalid
+     */
+    @Test
+    public void cachedPoliciesTest() throws IOException, JSONException {
+        Grant cachedGrant = new Grant();
+        cachedGrant.setProjectName("Cached Project");
+        cachedGrant.setPrimaryFunder(funder2);
+
+        Submission cachedSubmission = new Submission();
+        cachedSubmission.setSubmitterName("Elsie");
+        cachedSubmission.getGrants().add(cachedGrant);
+
+        try (PassClient client = PassClient.newInstance(refreshableElide)) {
+            client.createObject(cachedGrant);
+            client.createObject(cachedSubmission);
+        }
+
+        doSamlLogin();
+
+        // The funder policy and the institutional policy
+        assertEquals(2, getPolicies(cachedSubmission).length());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        assertEquals(2, getPolicies(cachedSubmission).length());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        cachedGrant.setDirectFunder(funder1);
+
+        try (PassClient client = PassClient.newInstance(refreshableElide)) {
+            client.updateObject(cachedGrant);
+        }
+
+        assertEquals(3, getPolicies(cachedSubmission).length());
+    }
+
+    /**
+     * Tests that a change to a user only invalidates the cached affiliation of that user and not the cached
+     * policies of submissions.
+     *
+     * @throws IOException if the connection to the datastore fails
+     * @throws JSONException if a JSON assignment is invalid
+     */
+    @Test
+    public void cachedPoliciesKeptOnUserChangeTest() throws IOException, JSONException {
+        Submission cachedSubmission = new Submission();
+        cachedSubmission.setSubmitterName("Clara");
+        cachedSubmission.getGrants().add(grant);
+
+        try (PassClient client = PassClient.newInstance(refreshableElide)) {
+            client.createObject(cachedSubmission);
+        }
+
+        doSamlLogin();
+
+        assertEquals(3, getPolicies(cachedSubmission).length());
+
+        User other = new User();
+        other.setUsername("other@jhu.edu");
+
+        try (PassClient client = PassClient.newInstance(refreshableElide)) {
+            client.createObject(other);
+            other.setUsername("renamed@jhu.edu");
+            client.updateObject(other);
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        assertEquals(3, getPolicies(cachedSubmission).length());
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    private JSONArray getPolicies(Submission sub) throws IOException, JSONException {
+        Request okHttpRequest = new Request.Builder().url(formServiceUrl("policies", sub.getId().toString()))
+            .build();
+
+        try (Response okHttpResponse = client.newCall(okHttpRequest).execute()) {
+            assertEquals(200, okHttpResponse.code());
+
+            return new JSONArray(okHttpResponse.body().string());
+        }
+    }
+
     /**
      * A convenience method to form urls
      * @param endpoint the last path component for the service endpoint
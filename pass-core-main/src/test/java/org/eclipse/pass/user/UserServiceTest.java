@@ -1,12 +1,14 @@
 package org.eclipse.pass.user;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.net.URI;
 
+import jakarta.persistence.EntityManagerFactory;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -16,6 +18,8 @@ import org.eclipse.pass.object.model.Submission;
 import org.eclipse.pass.object.model.User;
 import org.eclipse.pass.usertoken.Token;
 import org.eclipse.pass.usertoken.TokenFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
@@ -25,6 +29,9 @@ public class UserServiceTest extends SamlIntegrationTest {
     @Autowired
     private TokenFactory userTokenFactory;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     public void testHandleRequest() throws IOException, JSONException {
         String url = getBaseUrl() + "user/whoami";
@@ -46,6 +53,75 @@ public class UserServiceTest extends SamlIntegrationTest {
         assertTrue(result.getString("uri").endsWith("/data/user/" + submitter.getId()));
     }
 
+    @Test
+    public void testHandleRequestIncludeUser() throws IOException, JSONException {
+        String url = getBaseUrl() + "user/whoami?include=user";
+
+        User submitter = doSamlLogin();
+
+        Request request = new Request.Builder().url(url).get().build();
+
+        Response response = client.newCall(request).execute();
+
+        assertEquals(200, response.code());
+
+        JSONObject result = new JSONObject(response.body().string());
+
+        assertEquals(submitter.getId().toString(), result.getString("id"));
+
+        JSONObject user = result.getJSONObject("user");
+
+        assertEquals(submitter.getId().toString(), user.getString("id"));
+        assertEquals("user", user.getString("type"));
+        assertEquals(submitter.getUsername(), user.getJSONObject("attributes").getString("username"));
+        assertEquals(submitter.getEmail(), user.getJSONObject("attributes").getString("email"));
+        assertEquals(submitter.getRoles().size(), user.getJSONObject("attributes").getJSONArray("roles").length());
+        assertEquals(submitter.getAffiliation().size(),
+            user.getJSONObject("attributes").getJSONArray("affiliation").length());
+        assertTrue(user.getJSONObject("links").getString("self").endsWith("/data/user/" + submitter.getId()));
+    }
+
+    @Test
+    public void testHandleRequestNotModified() throws IOException, JSONException {
+        String url = getBaseUrl() + "user/whoami";
+
+        User submitter = doSamlLogin();
+
+        Response response = client.newCall(new Request.Builder().url(url).get().build()).execute();
+
+        assertEquals(200, response.code());
+
+        String etag = response.header("ETag");
+        String body = response.body().string();
+
+        assertNotNull(etag);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        // Answered from the session
+        response = client.newCall(new Request.Builder().url(url).get().build()).execute();
+
+        assertEquals(200, response.code());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(etag, response.header("ETag"));
+        assertEquals(body, response.body().string());
+        assertEquals(submitter.getId().toString(), new JSONObject(body).getString("id"));
+
+        response = client.newCall(new Request.Builder().url(url).header("If-None-Match", etag).get().build())
+            .execute();
+
+        assertEquals(304, response.code());
+        response.close();
+
+        // The embedded user changes the answer
+        response = client.newCall(new Request.Builder().url(url + "?include=user").header("If-None-Match", etag)
+            .get().build()).execute();
+
+        assertEquals(200, response.code());
+        response.close();
+    }
+
     @Test
     public void testHandleRequestWithMalformedUserToken() throws IOException, JSONException {
         HttpUrl url = HttpUrl.parse(getBaseUrl() + "user/whoami").newBuilder()
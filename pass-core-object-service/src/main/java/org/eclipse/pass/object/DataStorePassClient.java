@@ -0,0 +1,409 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.ElideSettings;
+import com.yahoo.elide.RefreshableElide;
+import com.yahoo.elide.core.PersistentResource;
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.datastore.DataStore;
+import com.yahoo.elide.core.datastore.DataStoreTransaction;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.exceptions.HttpStatusException;
+import com.yahoo.elide.core.exceptions.InvalidObjectIdentifierException;
+import com.yahoo.elide.core.request.EntityProjection;
+import com.yahoo.elide.core.request.route.Route;
+import com.yahoo.elide.core.security.User;
+import com.yahoo.elide.core.type.ClassType;
+import com.yahoo.elide.jsonapi.EntityProjectionMaker;
+import com.yahoo.elide.jsonapi.JsonApiRequestScope;
+import com.yahoo.elide.jsonapi.models.Data;
+import com.yahoo.elide.jsonapi.models.JsonApiDocument;
+import com.yahoo.elide.jsonapi.models.Resource;
+import jakarta.persistence.OptimisticLockException;
+import org.eclipse.pass.object.model.PassEntity;
+import org.eclipse.pass.object.security.WebSecurityRole;
+
+/**
+ * PASS client which works on entities directly through the Elide DataStore and PersistentResource.
+ * Each operation runs in a single transaction using the same sequence of permission checks and lifecycle hooks
+ * as a JSON API request, but without serializing the objects to and from JSON API documents.
+ * The batch methods apply all of their changes in one transaction.
+ * <p>
+ * Objects retrieved using this client may not work after the client has been closed.
+ * This is because relationships are loaded lazily. Everything reachable from the fields of a retrieved object is
+ * loaded before it is returned, but fields left out by sparse fields in a selector are not.
+ */
+public class DataStorePassClient implements PassClient {
+    private final ElideSettings settings;
+    private final DataStore dataStore;
+    private final User user;
+    private final String api_version;
+
+    /**
+     * Constructor for DataStorePassClient.
+     *
+     * @param refreshableElide Elide instance to use for the PassClient
+     * @param user User to use for the PassClient
+     */
+    public DataStorePassClient(RefreshableElide refreshableElide, User user) {
+        Elide elide = refreshableElide.getElide();
+        this.settings = elide.getElideSettings();
+        this.dataStore = elide.getDataStore();
+        this.user = user;
+        this.api_version = settings.getEntityDictionary().getApiVersions().iterator().next();
+    }
+
+    /**
+     * Act as a backend user.
+     *
+     * @param refreshableElide Elide instance to use for the PassClient
+     */
+    public DataStorePassClient(RefreshableElide refreshableElide) {
+        this(refreshableElide, new User(null) {
+            @Override
+            public String getName() {
+                return DataStorePassClient.class.getName();
+            }
+
+            @Override
+            public boolean isInRole(String role) {
+                return role.equals(WebSecurityRole.BACKEND.getValue());
+            }
+        });
+    }
+
+    private JsonApiRequestScope get_scope(String path, Map<String, List<String>> params, DataStoreTransaction tx,
+                                          JsonApiDocument doc) {
+        Route.RouteBuilder builder = Route.builder()
+            .baseUrl(settings.getBaseUrl())
+            .path(path)
+            .apiVersion(api_version);
+
+        if (params != null) {
+            builder.parameters(params);
+        }
+
+        return JsonApiRequestScope.builder()
+            .route(builder.build())
+            .user(user)
+            .dataStoreTransaction(tx)
+            .requestId(UUID.randomUUID())
+            .elideSettings(settings)
+            .jsonApiDocument(doc)
+            .build();
+    }
+
+    private String get_path(Class<?> type, Long id) {
+        StringBuilder result = new StringBuilder();
+
+        result.append('/');
+        result.append(EntityDictionary.getEntityName(ClassType.of(type)));
+
+        if (id != null) {
+            result.append('/');
+            result.append(id);
+        }
+
+        return result.toString();
+    }
+
+    private EntityProjection get_projection(Class<?> type) {
+        return EntityProjection.builder().type(ClassType.of(type)).build();
+    }
+
+    // The document is never serialized. It is attached to the request scope so that hooks which inspect the
+    // request, such as the optimistic lock check, see the same attributes as they would for a JSON API request.
+    private JsonApiDocument to_json_api_doc(List<? extends PassEntity> objs, List<Map<String, Object>> attributes) {
+        List<Resource> resources = new ArrayList<>();
+
+        for (int i = 0; i < objs.size(); i++) {
+            PassEntity obj = objs.get(i);
+            String typeName = EntityDictionary.getEntityName(ClassType.of(obj.getClass()));
+            Resource resource = new Resource(typeName, obj.getId() == null ? "-1" : obj.getId().toString());
+            resource.setAttributes(attributes.get(i));
+            resources.add(resource);
+        }
+
+        return new JsonApiDocument(resources.size() == 1 ? new Data<>(resources.get(0)) : new Data<>(resources));
+    }
+
+    private Map<String, Object> get_attributes(PassEntity obj) {
+        EntityDictionary dict = settings.getEntityDictionary();
+        Map<String, Object> attributes = new HashMap<>();
+
+        for (String name : dict.getAttributes(obj)) {
+            attributes.put(name, dict.getValue(obj, name, null));
+        }
+
+        return attributes;
+    }
+
+    // Set the attributes and relationships of the resource to match the given object
+    private void update_resource(PersistentResource<?> resource, PassEntity obj, Map<String, Object> attributes,
+                                 RequestScope scope) {
+        EntityDictionary dict = settings.getEntityDictionary();
+
+        attributes.forEach(resource::updateAttribute);
+
+        for (String name : dict.getRelationships(obj)) {
+            Object value = dict.getValue(obj, name, null);
+            Set<PersistentResource> targets = new LinkedHashSet<>();
+
+            if (value instanceof List) {
+                for (Object o : List.class.cast(value)) {
+                    targets.add(load_target(PassEntity.class.cast(o), scope));
+                }
+            } else if (value instanceof PassEntity) {
+                targets.add(load_target(PassEntity.class.cast(value), scope));
+            } else if (value != null) {
+                throw new RuntimeException("Unknown relationship target: " + value);
+            }
+
+            resource.updateRelation(name, targets);
+        }
+    }
+
+    private PersistentResource<?> load_target(PassEntity target, RequestScope scope) {
+        return PersistentResource.loadRecord(get_projection(target.getClass()), target.getId().toString(), scope);
+    }
+
+    // Same sequence of steps Elide uses to complete a JSON API request
+    private void commit(RequestScope scope, DataStoreTransaction tx, boolean readOnly) throws IOException {
+        tx.preCommit(scope);
+        scope.runQueuedPreSecurityTriggers();
+        scope.getPermissionExecutor().executeCommitChecks();
+        scope.runQueuedPreFlushTriggers();
+
+        if (!readOnly) {
+            scope.saveOrCreateObjects();
+        }
+
+        tx.flush(scope);
+        scope.runQueuedPreCommitTriggers();
+        tx.commit(scope);
+        scope.runQueuedPostCommitTriggers();
+    }
+
+    private static IOException failure(String action, RuntimeException e) {
+        int status = 500;
+
+        if (e instanceof HttpStatusException) {
+            status = ((HttpStatusException) e).getStatus();
+        } else if (e instanceof OptimisticLockException) {
+            status = 409;
+        }
+
+        return new IOException("Failed to " + action + ": " + status + " " + e.getMessage(), e);
+    }
+
+    // Copy the version assigned by the datastore back to the object if it has one
+    private void set_version_if_needed(PassEntity source, PassEntity obj) {
+        EntityDictionary dict = settings.getEntityDictionary();
+
+        if (dict.getAttributes(obj).contains("version")) {
+            Object version = dict.getValue(source, "version", null);
+
+            if (Objects.nonNull(version)) {
+                dict.setValue(obj, "version", version);
+            }
+        }
+    }
+
+    /**
+     * A change made to an object as part of a batch.
+     */
+    @FunctionalInterface
+    private interface Change {
+        PersistentResource<?> apply(PassEntity obj, Map<String, Object> attributes, RequestScope scope);
+    }
+
+    private PersistentResource<?> create(PassEntity obj, Map<String, Object> attributes, RequestScope scope) {
+        PersistentResource<?> resource = PersistentResource.createObject(ClassType.of(obj.getClass()), scope,
+            Optional.empty());
+        update_resource(resource, obj, attributes, scope);
+
+        return resource;
+    }
+
+    private PersistentResource<?> update(PassEntity obj, Map<String, Object> attributes, RequestScope scope) {
+        PersistentResource<?> resource = PersistentResource.loadRecord(get_projection(obj.getClass()),
+            obj.getId().toString(), scope);
+        update_resource(resource, obj, attributes, scope);
+
+        return resource;
+    }
+
+    private PersistentResource<?> delete(PassEntity obj, Map<String, Object> attributes, RequestScope scope) {
+        PersistentResource<?> resource = PersistentResource.loadRecord(get_projection(obj.getClass()),
+            obj.getId().toString(), scope);
+        resource.deleteResource();
+
+        return null;
+    }
+
+    // Apply a change to each object and commit them all in one transaction
+    private void batch(String action, String path, List<? extends PassEntity> objs, boolean send_attributes,
+                       Change change) throws IOException {
+        if (objs.isEmpty()) {
+            return;
+        }
+
+        List<Map<String, Object>> attributes = new ArrayList<>();
+        objs.forEach(o -> attributes.add(send_attributes ? get_attributes(o) : new HashMap<>()));
+
+        try (DataStoreTransaction tx = dataStore.beginTransaction()) {
+            RequestScope scope = get_scope(path, null, tx, to_json_api_doc(objs, attributes));
+            List<PersistentResource<?>> resources = new ArrayList<>();
+
+            for (int i = 0; i < objs.size(); i++) {
+                resources.add(change.apply(objs.get(i), attributes.get(i), scope));
+            }
+
+            commit(scope, tx, false);
+
+            for (int i = 0; i < objs.size(); i++) {
+                if (resources.get(i) != null) {
+                    PassEntity persisted = PassEntity.class.cast(resources.get(i).getObject());
+                    objs.get(i).setId(persisted.getId());
+                    set_version_if_needed(persisted, objs.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            throw failure(action, e);
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> void createObject(T obj) throws IOException {
+        batch("create object", get_path(obj.getClass(), null), List.of(obj), true, this::create);
+    }
+
+    @Override
+    public <T extends PassEntity> void createObjects(List<T> objs) throws IOException {
+        batch("create objects", "/", objs, true, this::create);
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObject(T obj) throws IOException {
+        batch("update object", get_path(obj.getClass(), obj.getId()), List.of(obj), true, this::update);
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObjects(List<T> objs) throws IOException {
+        batch("update objects", "/", objs, true, this::update);
+    }
+
+    @Override
+    public <T extends PassEntity> T getObject(Class<T> type, Long id) throws IOException {
+        String path = get_path(type, id);
+
+        try (DataStoreTransaction tx = dataStore.beginReadTransaction()) {
+            RequestScope scope = get_scope(path, null, tx, new JsonApiDocument());
+            PersistentResource<?> resource = PersistentResource.loadRecord(get_projection(type), id.toString(),
+                scope);
+
+            EntityInitializer.initialize(settings.getEntityDictionary(), scope, resource.getObject(), null);
+            commit(scope, tx, true);
+
+            return type.cast(resource.getObject());
+        } catch (InvalidObjectIdentifierException e) {
+            return null;
+        } catch (RuntimeException e) {
+            throw failure("get object", e);
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> void deleteObject(Class<T> type, Long id) throws IOException {
+        String path = get_path(type, id);
+
+        try (DataStoreTransaction tx = dataStore.beginTransaction()) {
+            RequestScope scope = get_scope(path, null, tx, new JsonApiDocument());
+            PersistentResource<?> resource = PersistentResource.loadRecord(get_projection(type), id.toString(),
+                scope);
+
+            resource.deleteResource();
+            commit(scope, tx, false);
+        } catch (RuntimeException e) {
+            throw failure("delete object", e);
+        }
+    }
+
+    @Override
+    public <T extends PassEntity> void deleteObjects(List<T> objs) throws IOException {
+        batch("delete objects", "/", objs, false, this::delete);
+    }
+
+    @Override
+    public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException {
+        Map<String, List<String>> params = PassClient.getParams(selector);
+
+        String path = get_path(selector.getType(), null);
+
+        try (DataStoreTransaction tx = dataStore.beginReadTransaction()) {
+            JsonApiRequestScope scope = get_scope(path, params, tx, new JsonApiDocument());
+
+            // Parse the parameters exactly as a JSON API request would in order to get filtering, sorting,
+            // pagination, and the read permission filters.
+            EntityProjection projection = new EntityProjectionMaker(settings.getEntityDictionary(), scope)
+                .parsePath(path);
+
+            List<T> objects = new ArrayList<>();
+
+            PersistentResource.loadRecords(projection, Collections.emptyList(), scope).blockingForEach(r -> {
+                @SuppressWarnings("unchecked")
+                T o = (T) r.getObject();
+                objects.add(o);
+            });
+
+            Set<String> fields = new HashSet<>();
+            projection.getAttributes().forEach(a -> fields.add(a.getName()));
+            projection.getRelationships().forEach(r -> fields.add(r.getName()));
+
+            objects.forEach(o -> EntityInitializer.initialize(settings.getEntityDictionary(), scope, o, fields));
+
+            commit(scope, tx, true);
+
+            Long totalval = projection.getPagination() == null ? null : projection.getPagination().getPageTotals();
+            PassClientResult<T> result = new PassClientResult<>(totalval == null ? -1 : totalval);
+            result.getObjects().addAll(objects);
+
+            return result;
+        } catch (RuntimeException e) {
+            throw failure("select objects", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // no-op
+    }
+}
@@ -18,12 +18,17 @@ package org.eclipse.pass.object;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.yahoo.elide.Elide;
 import com.yahoo.elide.ElideResponse;
 import com.yahoo.elide.ElideSettings;
@@ -49,11 +54,16 @@ import org.eclipse.pass.object.security.WebSecurityRole;
 /**
  * PASS client which uses the HTTP verb methods of the main Elide class.
  * Hooks should be triggered and permissions will be checked.
+ * The batch methods use JSON API atomic operations so that all of their changes are made in one transaction.
  * <p>
  * Objects retrieved using this client may not work after the client has been closed.
- * This is because relationships are loaded lazily.
+ * This is because relationships are loaded lazily. Everything reachable from the fields of a retrieved object is
+ * loaded before it is returned, but fields left out by sparse fields in a selector are not.
  */
 public class ElidePassClient implements PassClient {
+    private static final String ATOMIC_OPERATIONS_CONTENT_TYPE =
+        "application/vnd.api+json; ext=\"https://jsonapi.org/ext/atomic\"";
+
     private final ElideSettings settings;
     private final User user;
     private final String api_version;
@@ -217,6 +227,85 @@ public class ElidePassClient implements PassClient {
         }
     }
 
+    @Override
+    public <T extends PassEntity> void createObjects(List<T> objs) throws IOException {
+        operations("create objects", "add", objs);
+    }
+
+    @Override
+    public <T extends PassEntity> void updateObjects(List<T> objs) throws IOException {
+        operations("update objects", "update", objs);
+    }
+
+    @Override
+    public <T extends PassEntity> void deleteObjects(List<T> objs) throws IOException {
+        operations("delete objects", "remove", objs);
+    }
+
+    // Perform the same operation on each object as a JSON API atomic operations request
+    private <T extends PassEntity> void operations(String action, String op, List<T> objs) throws IOException {
+        if (objs.isEmpty()) {
+            return;
+        }
+
+        ObjectMapper mapper = jsonApiMapper.getObjectMapper();
+        ObjectNode doc = mapper.createObjectNode();
+        ArrayNode ops = doc.putArray("atomic:operations");
+
+        for (T obj : objs) {
+            ObjectNode node = ops.addObject();
+            node.put("op", op);
+
+            if (op.equals("remove")) {
+                node.putObject("ref")
+                    .put("type", EntityDictionary.getEntityName(ClassType.of(obj.getClass())))
+                    .put("id", obj.getId().toString());
+            } else {
+                node.set("data", mapper.valueToTree(to_json_api_doc(obj).getData().getSingleValue()));
+            }
+        }
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Content-Type", List.of(ATOMIC_OPERATIONS_CONTENT_TYPE));
+        headers.put("Accept", List.of(ATOMIC_OPERATIONS_CONTENT_TYPE));
+
+        Route route = Route.builder()
+            .baseUrl(settings.getBaseUrl())
+            .path("/operations")
+            .apiVersion(api_version)
+            .headers(headers)
+            .build();
+
+        ElideResponse<String> response = jsonApi.operations(route, mapper.writeValueAsString(doc), user,
+            UUID.randomUUID());
+
+        int code = response.getStatus();
+
+        if (code < 200 || code > 204) {
+            throw new IOException("Failed to " + action + ": " + code + " " + response.getBody());
+        }
+
+        if (op.equals("remove") || response.getBody() == null || response.getBody().isEmpty()) {
+            return;
+        }
+
+        JsonNode results = mapper.readTree(response.getBody()).path("atomic:results");
+
+        for (int i = 0; i < objs.size(); i++) {
+            JsonNode data = results.path(i).path("data");
+
+            if (data.hasNonNull("id")) {
+                settings.getEntityDictionary().setId(objs.get(i), data.get("id").asText());
+            }
+
+            JsonNode version = data.path("attributes").path("version");
+
+            if (version.isNumber()) {
+                settings.getEntityDictionary().setValue(objs.get(i), "version", version.asLong());
+            }
+        }
+    }
+
     @Override
     public <T extends PassEntity> T getObject(Class<T> type, Long id) throws IOException {
         String path = get_path(type, id);
@@ -236,7 +325,11 @@ public class ElidePassClient implements PassClient {
 
         try (DataStoreTransaction tx = jsonApi.getElide().getDataStore().beginReadTransaction()) {
             RequestScope scope = get_scope(path, tx);
-            return type.cast(doc.getData().getSingleValue().toPersistentResource(scope).getObject());
+            Object obj = doc.getData().getSingleValue().toPersistentResource(scope).getObject();
+
+            EntityInitializer.initialize(settings.getEntityDictionary(), scope, obj, null);
+
+            return type.cast(obj);
         }
     }
 
@@ -253,16 +346,7 @@ public class ElidePassClient implements PassClient {
 
     @Override
     public <T extends PassEntity> PassClientResult<T> selectObjects(PassClientSelector<T> selector) throws IOException {
-        Map<String, List<String>> params = new LinkedHashMap<>();
-        if (selector.getFilter() != null) {
-            PassClient.addParam(params, "filter", selector.getFilter());
-        }
-        if (selector.getSorting() != null) {
-            PassClient.addParam(params, "sort", selector.getSorting());
-        }
-        PassClient.addParam(params, "page[offset]", String.valueOf(selector.getOffset()));
-        PassClient.addParam(params, "page[limit]",  String.valueOf(selector.getLimit()));
-        PassClient.addParam(params, "page[totals]", null);
+        Map<String, List<String>> params = PassClient.getParams(selector);
 
         String path = get_path(selector.getType(), null);
         Route route = getRoute(path, params);
@@ -279,11 +363,15 @@ public class ElidePassClient implements PassClient {
 
         JsonApiDocument doc = jsonApiMapper.readJsonApiDocument(response.getBody());
 
-        Object totalval = doc.getMeta().getValue("page", Map.class).get("totalRecords");
         long total = -1;
 
-        if (totalval != null) {
-            total = Long.parseLong(totalval.toString());
+        // Page totals are not present when they were not requested
+        if (doc.getMeta() != null && doc.getMeta().getValue("page", Map.class) != null) {
+            Object totalval = doc.getMeta().getValue("page", Map.class).get("totalRecords");
+
+            if (totalval != null) {
+                total = Long.parseLong(totalval.toString());
+            }
         }
 
         PassClientResult<T> result = new PassClientResult<>(total);
@@ -294,6 +382,7 @@ public class ElidePassClient implements PassClient {
             doc.getData().get().forEach(r -> {
                 @SuppressWarnings("unchecked")
                 T o = (T) r.toPersistentResource(scope).getObject();
+                EntityInitializer.initialize(settings.getEntityDictionary(), scope, o, fields(r));
                 result.getObjects().add(o);
             });
         }
@@ -301,6 +390,21 @@ public class ElidePassClient implements PassClient {
         return result;
     }
 
+    // Fields present in a resource returned with sparse fields
+    private static Set<String> fields(Resource resource) {
+        Set<String> result = new HashSet<>();
+
+        if (resource.getAttributes() != null) {
+            result.addAll(resource.getAttributes().keySet());
+        }
+
+        if (resource.getRelationships() != null) {
+            result.addAll(resource.getRelationships().keySet());
+        }
+
+        return result;
+    }
+
     private Route getRoute(String path, Map<String, List<String>> parameters) {
         Route.RouteBuilder builder = Route.builder()
             .baseUrl(settings.getBaseUrl())
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import com.yahoo.elide.core.RequestScope;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.type.ClassType;
+import com.yahoo.elide.core.type.Type;
+import org.hibernate.Hibernate;
+
+/**
+ * Loads the lazily loaded fields of objects retrieved by a PassClient so that they can be used after the
+ * transaction which retrieved them ends.
+ * <p>
+ * Only the collections of a Submission are loaded lazily. Everything reachable from the requested fields of an
+ * object is loaded, which is the graph the eager mappings used to load, so that objects returned by a client
+ * behave as they did. Fields left out by sparse fields are not loaded.
+ */
+final class EntityInitializer {
+    private EntityInitializer() {
+    }
+
+    /**
+     * Load the given fields of an object and everything reachable from them.
+     *
+     * @param dict dictionary describing the object
+     * @param scope scope of the transaction the object was retrieved in
+     * @param obj object to initialize or null
+     * @param fields names of the fields to load or null for all fields
+     */
+    static void initialize(EntityDictionary dict, RequestScope scope, Object obj, Set<String> fields) {
+        initialize(dict, scope, obj, fields, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static void initialize(EntityDictionary dict, RequestScope scope, Object obj, Set<String> fields,
+                                   Set<Object> visited) {
+        if (obj == null || !visited.add(obj)) {
+            return;
+        }
+
+        Type<?> type = ClassType.of(Hibernate.getClass(obj));
+        Object target = Hibernate.unproxy(obj);
+
+        for (String field : dict.getAttributes(type)) {
+            if (fields == null || fields.contains(field)) {
+                Hibernate.initialize(dict.getValue(target, field, scope));
+            }
+        }
+
+        for (String field : dict.getRelationships(type)) {
+            if (fields != null && !fields.contains(field)) {
+                continue;
+            }
+
+            Object value = dict.getValue(target, field, scope);
+
+            if (value instanceof Collection<?> col) {
+                Hibernate.initialize(col);
+                col.forEach(o -> initialize(dict, scope, o, null, visited));
+            } else {
+                initialize(dict, scope, value, null, visited);
+            }
+        }
+    }
+}
@@ -18,10 +18,9 @@ package org.eclipse.pass.object;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Spliterator;
-import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -45,7 +44,7 @@ public interface PassClient extends Closeable {
      * @return new instance
      */
     static PassClient newInstance(RefreshableElide elide) {
-        return new ElidePassClient(elide);
+        return new DataStorePassClient(elide);
     }
 
     /**
@@ -97,6 +96,25 @@ public interface PassClient extends Closeable {
      */
     <T extends PassEntity> void updateObject(T obj) throws IOException;
 
+    /**
+     * Create new objects in the repository in a single transaction. Either all of the objects are created or none.
+     * The ids of the objects must be null and will be set by the method.
+     *
+     * @param <T> object type
+     * @param objs objects to create
+     * @throws IOException if operation fails
+     */
+    <T extends PassEntity> void createObjects(List<T> objs) throws IOException;
+
+    /**
+     * Update existing objects in a single transaction. Either all of the objects are updated or none.
+     *
+     * @param <T> object type
+     * @param objs objects to persist
+     * @throws IOException if operation fails
+     */
+    <T extends PassEntity> void updateObjects(List<T> objs) throws IOException;
+
     /**
      * Retrieve an object from the repository.
      *
@@ -129,6 +147,15 @@ public interface PassClient extends Closeable {
         deleteObject(obj.getClass(), obj.getId());
     }
 
+    /**
+     * Delete objects in the repository in a single transaction. Either all of the objects are deleted or none.
+     *
+     * @param <T> object type
+     * @param objs objects to delete
+     * @throws IOException if operation fails
+     */
+    <T extends PassEntity> void deleteObjects(List<T> objs) throws IOException;
+
     /**
      * Select objects from the repository matching the selector.
      *
@@ -141,6 +168,7 @@ public interface PassClient extends Closeable {
 
     /**
      * Stream all objects in the repository matching the selector starting from the selector offset.
+     * If the selector does not specify a sort, objects are streamed in id order using keyset pagination.
      *
      * @param <T> object type
      * @param selector determines which objects to retrieve
@@ -148,46 +176,70 @@ public interface PassClient extends Closeable {
      * @throws IOException if operation fails
      */
     default <T extends PassEntity> Stream<T> streamObjects(PassClientSelector<T> selector) throws IOException {
-        Spliterator<T> iter = new Spliterator<T>() {
-            PassClientResult<T> result = selectObjects(selector);
-            int next = 0;
-
-            @Override
-            public int characteristics() {
-                return NONNULL | CONCURRENT;
-            }
-
-            @Override
-            public long estimateSize() {
-                return result.getTotal();
-            }
-
-            @Override
-            public boolean tryAdvance(Consumer<? super T> consumer) {
-                if (next == result.getObjects().size()) {
-                    try {
-                        selector.setOffset(selector.getOffset() + selector.getLimit());
-                        result = selectObjects(selector);
-                        next = 0;
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-
-                    if (result.getObjects().size() == 0) {
-                        return false;
-                    }
-                }
-
-                consumer.accept(result.getObjects().get(next++));
-                return true;
-            }
-
-            @Override
-            public Spliterator<T> trySplit() {
-                return null;
-            }
-        };
-
-        return StreamSupport.stream(iter, false);
+        return streamObjects(selector, 0);
+    }
+
+    /**
+     * Stream all objects in the repository matching the selector starting from the selector offset.
+     * Up to prefetch pages are retrieved in the background while the current page is consumed.
+     * If the selector does not specify a sort, objects are streamed in id order using keyset pagination and
+     * a parallel stream will split the id range across threads.
+     * Pages are retrieved as the stream is consumed and failures are thrown as a RuntimeException.
+     * Closing the stream cancels the retrievals still in progress.
+     *
+     * @param <T> object type
+     * @param selector determines which objects to retrieve
+     * @param prefetch number of pages to retrieve ahead of the one being consumed
+     * @return Stream of matching objects
+     * @throws IOException if operation fails
+     */
+    default <T extends PassEntity> Stream<T> streamObjects(PassClientSelector<T> selector, int prefetch)
+        throws IOException {
+        PassClientSpliterator<T> spliterator = new PassClientSpliterator<>(this, selector, prefetch);
+
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Return the JSON API query parameters which select the objects described by the selector.
+     *
+     * @param selector determines which objects to retrieve
+     * @return Map of parameter name to values
+     */
+    static Map<String, List<String>> getParams(PassClientSelector<?> selector) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+
+        selector.getFields().forEach((type, names) -> addParam(params, "fields[" + type + "]",
+            String.join(",", names)));
+
+        if (!selector.getInclude().isEmpty()) {
+            addParam(params, "include", String.join(",", selector.getInclude()));
+        }
+
+        if (selector.getAfter() != null) {
+            String seek = RSQL.greaterThan("id", selector.getAfter().toString());
+            String filter = selector.getFilter();
+
+            addParam(params, "filter", filter == null ? seek : RSQL.and(filter, seek));
+            addParam(params, "sort", "id");
+            addParam(params, "page[limit]", String.valueOf(selector.getLimit()));
+
+            return params;
+        }
+
+        if (selector.getFilter() != null) {
+            addParam(params, "filter", selector.getFilter());
+        }
+        if (selector.getSorting() != null) {
+            addParam(params, "sort", selector.getSorting());
+        }
+        addParam(params, "page[offset]", String.valueOf(selector.getOffset()));
+        addParam(params, "page[limit]",  String.valueOf(selector.getLimit()));
+
+        if (selector.isTotals()) {
+            addParam(params, "page[totals]", null);
+        }
+
+        return params;
     }
-}
\ No newline at end of file
+}
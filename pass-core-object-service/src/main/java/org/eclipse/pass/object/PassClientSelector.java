@@ -15,12 +15,27 @@
  */
 package org.eclipse.pass.object;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.type.ClassType;
 import org.eclipse.pass.object.model.PassEntity;
 
 /**
  * PassClientSelector is used to select objects in the repository.
  * See <a href="https://elide.io/pages/guide/v6/10-jsonapi.html">Elide JSON-API</a> for information on the
  * sort and filter syntax.
+ * <p>
+ * Setting an id to seek after switches the selector to keyset pagination. Objects are then returned in id order
+ * starting after that id, the offset and sorting are ignored, and the total is not computed. Unlike offset
+ * pagination, the cost of a page does not grow with its position and concurrent inserts do not cause objects
+ * to be skipped or repeated.
+ * <p>
+ * Sparse fieldsets and relationships to include can be given to limit what the repository has to load and
+ * return. Returned objects are only guaranteed to have the requested fields set.
  */
 public class PassClientSelector<T extends PassEntity> {
     private static final int DEFAULT_LIMIT = 500;
@@ -30,6 +45,10 @@ public class PassClientSelector<T extends PassEntity> {
     private Class<T> type;
     private String sorting;
     private String filter;
+    private Long after;
+    private boolean totals = true;
+    private Map<String, List<String>> fields = new LinkedHashMap<>();
+    private List<String> include = new ArrayList<>();
 
     /**
      * Match all objects of the given type.
@@ -58,6 +77,19 @@ public class PassClientSelector<T extends PassEntity> {
         this.sorting = sorting;
     }
 
+    /**
+     * Copy a selector.
+     *
+     * @param selector Selector to copy
+     */
+    public PassClientSelector(PassClientSelector<T> selector) {
+        this(selector.type, selector.offset, selector.limit, selector.filter, selector.sorting);
+        this.after = selector.after;
+        this.totals = selector.totals;
+        selector.fields.forEach((k, v) -> this.fields.put(k, new ArrayList<>(v)));
+        this.include.addAll(selector.include);
+    }
+
     /**
      *
      * @return The offset into the list of total objects to return.
@@ -137,4 +169,72 @@ public class PassClientSelector<T extends PassEntity> {
     public void setFilter(String filter) {
         this.filter = filter;
     }
+
+    /**
+     *
+     * @return The id after which objects are returned in id order or null if keyset pagination is not used.
+     */
+    public Long getAfter() {
+        return after;
+    }
+
+    /**
+     * Use keyset pagination and return objects with an id greater than the given one in id order.
+     * The offset and sorting are ignored. Set to null to use offset pagination.
+     * @param after The id after which to return objects or null.
+     */
+    public void setAfter(Long after) {
+        this.after = after;
+    }
+
+    /**
+     *
+     * @return Whether the total number of matching objects is computed.
+     */
+    public boolean isTotals() {
+        return totals;
+    }
+
+    /**
+     * Set whether the total number of matching objects is computed. Computing the total requires an additional
+     * count query. If the total is not computed, the total of the result is -1.
+     * Keyset pagination never computes the total.
+     * @param totals Whether to compute the total.
+     */
+    public void setTotals(boolean totals) {
+        this.totals = totals;
+    }
+
+    /**
+     *
+     * @return Map of JSON API type name to the fields to return for that type. Empty means all fields.
+     */
+    public Map<String, List<String>> getFields() {
+        return fields;
+    }
+
+    /**
+     * Only return the given attributes and relationships of objects of a type.
+     * @param type The type of PassEntity objects the fields belong to.
+     * @param names The names of the fields to return.
+     */
+    public void setFields(Class<? extends PassEntity> type, String... names) {
+        fields.put(EntityDictionary.getEntityName(ClassType.of(type)), List.of(names));
+    }
+
+    /**
+     *
+     * @return The relationship paths whose targets are included with the selected objects.
+     */
+    public List<String> getInclude() {
+        return include;
+    }
+
+    /**
+     * Set the relationship paths whose targets are included with the selected objects.
+     * @param paths The relationship paths such as grants or grants.pi.
+     */
+    public void setInclude(String... paths) {
+        this.include = new ArrayList<>(List.of(paths));
+    }
 }
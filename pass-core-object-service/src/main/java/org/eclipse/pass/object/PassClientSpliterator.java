@@ -0,0 +1,316 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.object;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.pass.object.model.PassEntity;
+
+/**
+ * Spliterator over the pages of objects matching a selector.
+ * <p>
+ * If the selector does not have a custom sort, pages are retrieved in id order using keyset pagination and the
+ * spliterator can be split by id range. Otherwise offset pagination is used and the spliterator cannot be split.
+ * Up to prefetch pages are retrieved in the background while the current page is consumed. Background retrievals
+ * share a bounded pool of threads and are cancelled when the spliterator, and every spliterator split from it,
+ * is closed.
+ *
+ * @param <T> object type
+ */
+class PassClientSpliterator<T extends PassEntity> implements Spliterator<T> {
+    private static final int PREFETCH_THREADS = 8;
+    private static final AtomicInteger PREFETCH_THREAD_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor PREFETCH_EXECUTOR = new ThreadPoolExecutor(PREFETCH_THREADS,
+        PREFETCH_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "pass-client-prefetch-" + PREFETCH_THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    static {
+        PREFETCH_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final PassClient client;
+    private final PassClientSelector<T> selector;
+    private final boolean seek;
+    private final int prefetch;
+
+    // Shared with spliterators split from this one so that closing the stream cancels all of them
+    private final AtomicBoolean closed;
+    private final Queue<CompletableFuture<?>> outstanding;
+
+    // Inclusive upper bound on ids when seeking or null if there is no bound
+    private Long max_id;
+    private long estimate;
+
+    private final Deque<CompletableFuture<PassClientResult<T>>> pages = new ArrayDeque<>();
+    private CompletableFuture<PassClientResult<T>> last_page;
+    private int requested;
+    private PassClientResult<T> result;
+    private int next;
+
+    /**
+     * @param client client used to retrieve pages
+     * @param selector determines which objects to retrieve, not modified
+     * @param prefetch number of pages to retrieve ahead of the current one
+     */
+    PassClientSpliterator(PassClient client, PassClientSelector<T> selector, int prefetch) {
+        this.client = client;
+        this.selector = new PassClientSelector<>(selector);
+        this.seek = selector.getAfter() != null || selector.getSorting() == null;
+        this.prefetch = Math.max(0, prefetch);
+        this.estimate = Long.MAX_VALUE;
+        this.closed = new AtomicBoolean();
+        this.outstanding = new ConcurrentLinkedQueue<>();
+
+        if (seek && selector.getAfter() == null) {
+            if (selector.getOffset() == 0) {
+                this.selector.setAfter(0L);
+            } else {
+                // Skip to the offset once and then seek from the last object returned
+                this.selector.setSorting("id");
+            }
+        }
+    }
+
+    private PassClientSpliterator(PassClientSpliterator<T> other, long after, long max_id, long estimate) {
+        this.client = other.client;
+        this.selector = new PassClientSelector<>(other.selector);
+        this.selector.setAfter(after);
+        this.seek = true;
+        this.prefetch = other.prefetch;
+        this.closed = other.closed;
+        this.outstanding = other.outstanding;
+        this.max_id = max_id;
+        this.estimate = estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+
+    /**
+     * Stop requesting pages and cancel the retrievals still in progress. The spliterators split from this one
+     * are closed as well.
+     */
+    void close() {
+        closed.set(true);
+
+        CompletableFuture<?> future;
+        while ((future = outstanding.poll()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        if (result != null && result.getTotal() >= 0) {
+            return result.getTotal();
+        }
+
+        return estimate;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> consumer) {
+        if (result == null || next == result.getObjects().size()) {
+            if (result != null && result.getObjects().isEmpty()) {
+                return false;
+            }
+
+            while (pages.size() <= prefetch) {
+                request_page();
+            }
+
+            result = join(pages.poll());
+            next = 0;
+
+            if (result.getObjects().isEmpty()) {
+                return false;
+            }
+        }
+
+        consumer.accept(result.getObjects().get(next++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        // Only the id range of a keyset traversal which has not started can be split
+        if (!seek || requested > 0 || selector.getAfter() == null) {
+            return null;
+        }
+
+        long min_id = selector.getAfter();
+
+        if (max_id == null) {
+            find_max_id();
+        }
+
+        if (max_id - min_id <= selector.getLimit()) {
+            return null;
+        }
+
+        long mid = min_id + (max_id - min_id) / 2;
+        long prefix_estimate = estimate == Long.MAX_VALUE ? estimate : estimate / 2;
+
+        PassClientSpliterator<T> prefix = new PassClientSpliterator<>(this, min_id, mid, prefix_estimate);
+
+        selector.setAfter(mid);
+        estimate = estimate == Long.MAX_VALUE ? estimate : estimate - prefix_estimate;
+
+        return prefix;
+    }
+
+    private void find_max_id() {
+        PassClientSelector<T> sel = new PassClientSelector<>(selector);
+        sel.setAfter(null);
+        sel.setOffset(0);
+        sel.setLimit(1);
+        sel.setSorting("-id");
+        sel.setFilter(bounded_filter());
+
+        try {
+            PassClientResult<T> max = client.selectObjects(sel);
+            List<T> objects = max.getObjects();
+
+            max_id = objects.isEmpty() ? selector.getAfter() : objects.get(0).getId();
+
+            if (max.getTotal() >= 0) {
+                estimate = max.getTotal();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String bounded_filter() {
+        String filter = selector.getFilter();
+
+        if (max_id == null) {
+            return filter;
+        }
+
+        String bound = RSQL.lessThanOrEquals("id", max_id.toString());
+
+        return filter == null ? bound : RSQL.and(filter, bound);
+    }
+
+    private PassClientSelector<T> page_selector(PassClientResult<T> previous, int page) {
+        PassClientSelector<T> sel = new PassClientSelector<>(selector);
+
+        if (seek) {
+            if (previous != null) {
+                List<T> objects = previous.getObjects();
+                sel.setAfter(objects.get(objects.size() - 1).getId());
+            }
+
+            sel.setFilter(bounded_filter());
+        } else {
+            sel.setOffset(selector.getOffset() + page * selector.getLimit());
+        }
+
+        return sel;
+    }
+
+    private PassClientResult<T> select(PassClientResult<T> previous, int page) {
+        try {
+            return client.selectObjects(page_selector(previous, page));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private CompletableFuture<PassClientResult<T>> load(PassClientResult<T> previous, int page) {
+        if (closed.get()) {
+            throw new IllegalStateException("Stream closed");
+        }
+
+        if (prefetch == 0) {
+            return CompletableFuture.completedFuture(select(previous, page));
+        }
+
+        CompletableFuture<PassClientResult<T>> future = new CompletableFuture<>();
+        outstanding.add(future);
+
+        Future<?> task = PREFETCH_EXECUTOR.submit(() -> {
+            try {
+                future.complete(select(previous, page));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        // Cancelling the page interrupts the retrieval if it is still running
+        future.whenComplete((r, e) -> {
+            outstanding.remove(future);
+
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+
+        // Closed while submitting
+        if (closed.get()) {
+            future.cancel(true);
+        }
+
+        return future;
+    }
+
+    // Each page is requested when the previous one arrives because keyset pagination needs its last id
+    private void request_page() {
+        int page = requested++;
+
+        if (last_page == null) {
+            last_page = load(null, page);
+        } else {
+            last_page = last_page.thenCompose(previous -> previous.getObjects().isEmpty()
+                ? CompletableFuture.completedFuture(previous) : load(previous, page));
+        }
+
+        pages.add(last_page);
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+}
@@ -73,6 +73,24 @@ public class RSQL {
         return comparison_group(name, "=out=", values);
     }
 
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return RSQL expression testing that object has a field greater than a value
+     */
+    public static String greaterThan(String name, String value) {
+        return comparison(name, "=gt=", value);
+    }
+
+    /**
+     * @param name Name of field
+     * @param value Value of field
+     * @return RSQL expression testing that object has a field less than or equal to a value
+     */
+    public static String lessThanOrEquals(String name, String value) {
+        return comparison(name, "=le=", value);
+    }
+
     /**
      * @param name Name of a collection field
      * @param value Value potentially in the collection
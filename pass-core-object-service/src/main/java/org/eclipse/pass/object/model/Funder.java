@@ -19,9 +19,12 @@ import java.net.URI;
 import java.util.Objects;
 
 import com.yahoo.elide.annotation.Include;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * The funder or sponsor of Grant or award.
@@ -32,6 +35,8 @@ import jakarta.persistence.Table;
 @Include
 @Entity
 @Table(name = "pass_funder")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "funder")
 public class Funder extends PassEntity {
 
     /**
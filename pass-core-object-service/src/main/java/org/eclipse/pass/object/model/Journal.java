@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Objects;
 
 import com.yahoo.elide.annotation.Include;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
@@ -27,6 +28,8 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Describes a Journal and the path of it's participation in PubMedCentral
@@ -37,6 +40,8 @@ import jakarta.persistence.Table;
 @Include
 @Entity
 @Table(name = "pass_journal")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "journal")
 public class Journal extends PassEntity {
     /**
      * Name of journal
@@ -48,6 +53,7 @@ public class Journal extends PassEntity {
      */
     @ElementCollection(targetClass = String.class, fetch = FetchType.EAGER)
     @CollectionTable(name = "pass_journal_issns")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "journal-issns")
     private List<String> issns = new ArrayList<>();
 
     /**
@@ -64,11 +64,17 @@ public abstract class PassEntity {
     }
 
     /**
-     * Unique id for the resource.
+     * Number of ids allocated by each call to the sequence. Must match the increment of hibernate_sequence.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Unique id for the resource. Ids are allocated from the sequence in blocks using the pooled-lo optimizer.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_gen")
-    @SequenceGenerator(name = "hibernate_gen", sequenceName = "hibernate_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "hibernate_gen", sequenceName = "hibernate_sequence",
+        allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
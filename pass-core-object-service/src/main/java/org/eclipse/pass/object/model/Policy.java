@@ -21,11 +21,14 @@ import java.util.List;
 import java.util.Objects;
 
 import com.yahoo.elide.annotation.Include;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Describes a Policy. Policies determine the rules that need to be followed by a Submission.
@@ -35,6 +38,8 @@ import jakarta.persistence.Table;
 @Include
 @Entity
 @Table(name = "pass_policy")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policy")
 public class Policy extends PassEntity {
 
     /**
@@ -57,6 +62,7 @@ public class Policy extends PassEntity {
      * List of repositories that can satisfying this policy
      */
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policy-repositories")
     private List<Repository> repositories = new ArrayList<>();
 
     /**
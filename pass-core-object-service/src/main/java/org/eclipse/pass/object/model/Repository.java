@@ -21,12 +21,15 @@ import java.util.List;
 import java.util.Objects;
 
 import com.yahoo.elide.annotation.Include;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import org.eclipse.pass.object.converter.IntegrationTypeToStringConverter;
 import org.eclipse.pass.object.converter.ListToURIStringConverter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Describes a Repository. A Repository is the target of a Deposit.
@@ -37,6 +40,8 @@ import org.eclipse.pass.object.converter.ListToURIStringConverter;
 @Include
 @Entity
 @Table(name = "pass_repository")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "repository")
 public class Repository extends PassEntity {
 
     /**
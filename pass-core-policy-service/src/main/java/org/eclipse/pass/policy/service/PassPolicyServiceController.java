@@ -21,7 +21,6 @@ import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.Set;
 
-import com.yahoo.elide.RefreshableElide;
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonArrayBuilder;
@@ -62,10 +61,10 @@ public class PassPolicyServiceController {
     /**
      * PassPolicyServiceController Constructor
      *
-     * @param refreshableElide A refreshable Elide instance
+     * @param policyService the PolicyService
      */
-    public PassPolicyServiceController(RefreshableElide refreshableElide) {
-        this.policyService = new SimplePolicyService(refreshableElide);
+    public PassPolicyServiceController(PolicyService policyService) {
+        this.policyService = policyService;
     }
 
     /**
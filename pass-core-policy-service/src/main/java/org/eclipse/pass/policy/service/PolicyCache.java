@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.policy.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.eclipse.pass.object.model.Policy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of what the policy service computes. Entries are invalidated by the lifecycle hooks of
+ * PolicyCacheConfiguration when the objects they were computed from change. The hooks only run on the node making
+ * the change, so entries also expire after pass.policy.cache.duration.
+ * <p>
+ * The policies of a submission are kept with the version of the submission they were computed from. An update of
+ * the submission replaces the entry with a marker holding the new version, so that a result computed from an
+ * older version which is still in progress is not cached. Any other invalidation starts a new generation and a
+ * result computed in an older generation is not cached. A change to a user only invalidates the affiliation of its
+ * user name and is recorded so that a lookup of that user name which is still in progress is not cached.
+ */
+@Component
+public class PolicyCache {
+    private final Cache<Long, SubmissionPolicies> submissions;
+    private final Cache<String, Optional<Policy>> institutional_policies;
+    private final Cache<String, Optional<Set<String>>> affiliations;
+    private final Cache<String, Long> changed_users;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong user_changes = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of entries of each kind
+     * @param duration time after which an entry expires
+     */
+    public PolicyCache(@Value("${pass.policy.cache.max-size}") long maxSize,
+                       @Value("${pass.policy.cache.duration}") Duration duration) {
+        this.submissions = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(duration).build();
+        this.institutional_policies = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(duration)
+            .build();
+        this.affiliations = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(duration).build();
+        this.changed_users = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(duration).build();
+    }
+
+    /**
+     * Policies computed from a submission.
+     *
+     * @param version version of the submission
+     * @param funderPolicies policies of the funders of the grants of the submission or null for a marker
+     * @param effectivePolicies effective policies of the submission or null for a marker
+     */
+    public record SubmissionPolicies(Long version, Set<Policy> funderPolicies, Set<Policy> effectivePolicies) {
+    }
+
+    /**
+     * @return generation to pass back when caching a result computed after this call
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return count of user changes to pass back when caching an affiliation looked up after this call
+     */
+    public long getUserChanges() {
+        return user_changes.get();
+    }
+
+    /**
+     * @param submissionId id of the submission
+     * @return cached policies of the submission or null
+     */
+    public SubmissionPolicies getSubmissionPolicies(Long submissionId) {
+        SubmissionPolicies result = submissions.getIfPresent(submissionId);
+
+        return result == null || result.funderPolicies() == null ? null : result;
+    }
+
+    /**
+     * Cache the policies of a submission unless they are out of date.
+     *
+     * @param submissionId id of the submission
+     * @param policies policies computed from the submission
+     * @param gen generation when the computation started
+     */
+    public void putSubmissionPolicies(Long submissionId, SubmissionPolicies policies, long gen) {
+        submissions.asMap().compute(submissionId, (id, old) -> {
+            if (gen != generation.get() || (old != null && is_newer(old.version(), policies.version()))) {
+                return old;
+            }
+
+            return policies;
+        });
+
+        check_generation(submissions, submissionId, gen);
+    }
+
+    /**
+     * @param title title of the institutional policy
+     * @return cached institutional policy, which may be empty, or null if not cached
+     */
+    public Optional<Policy> getInstitutionalPolicy(String title) {
+        return institutional_policies.getIfPresent(title);
+    }
+
+    /**
+     * @param title title of the institutional policy
+     * @param policy the policy if found
+     * @param gen generation when the lookup started
+     */
+    public void putInstitutionalPolicy(String title, Optional<Policy> policy, long gen) {
+        if (gen == generation.get()) {
+            institutional_policies.put(title, policy);
+            check_generation(institutional_policies, title, gen);
+        }
+    }
+
+    /**
+     * @param username user name of a user
+     * @return cached affiliation of the user, empty if there is no unique user, or null if not cached
+     */
+    public Optional<Set<String>> getAffiliation(String username) {
+        return affiliations.getIfPresent(username);
+    }
+
+    /**
+     * @param username user name of a user
+     * @param affiliation affiliation of the user if there is a unique user
+     * @param gen generation when the lookup started
+     * @param userChanges count of user changes when the lookup started
+     */
+    public void putAffiliation(String username, Optional<Set<String>> affiliation, long gen, long userChanges) {
+        if (gen == generation.get() && !user_changed(username, userChanges)) {
+            affiliations.put(username, affiliation);
+            check_generation(affiliations, username, gen);
+
+            if (user_changed(username, userChanges)) {
+                affiliations.invalidate(username);
+            }
+        }
+    }
+
+    /**
+     * Invalidate the policies of a submission which was updated or deleted.
+     *
+     * @param submissionId id of the submission
+     * @param version new version of the submission or null if deleted
+     */
+    public void invalidateSubmission(Long submissionId, Long version) {
+        if (version == null) {
+            submissions.invalidate(submissionId);
+        } else {
+            submissions.asMap().merge(submissionId, new SubmissionPolicies(version, null, null),
+                (old, marker) -> is_newer(old.version(), version) ? old : marker);
+        }
+    }
+
+    /**
+     * Invalidate every entry after a change to an object many results may be computed from.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        submissions.invalidateAll();
+        institutional_policies.invalidateAll();
+        affiliations.invalidateAll();
+    }
+
+    /**
+     * Invalidate the cached affiliation of a user name after a change to a user with that user name.
+     *
+     * @param username user name of the changed user
+     */
+    public void invalidateAffiliation(String username) {
+        changed_users.put(username, user_changes.incrementAndGet());
+        affiliations.invalidate(username);
+    }
+
+    private static boolean is_newer(Long version, Long other) {
+        return version != null && other != null && version > other;
+    }
+
+    // Return whether the user name was changed after the count of user changes
+    private boolean user_changed(String username, long userChanges) {
+        Long changed = changed_users.getIfPresent(username);
+
+        return changed != null && changed > userChanges;
+    }
+
+    // Remove an entry cached while a new generation started
+    private <K> void check_generation(Cache<K, ?> cache, K key, long gen) {
+        if (gen != generation.get()) {
+            cache.invalidate(key);
+        }
+    }
+}
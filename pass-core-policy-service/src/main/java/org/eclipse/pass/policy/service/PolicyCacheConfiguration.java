@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Johns Hopkins University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.pass.policy.service;
+
+import java.util.List;
+
+import com.yahoo.elide.annotation.LifeCycleHookBinding.Operation;
+import com.yahoo.elide.annotation.LifeCycleHookBinding.TransactionPhase;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.lifecycle.LifeCycleHook;
+import com.yahoo.elide.core.security.ChangeSpec;
+import org.eclipse.pass.object.model.Funder;
+import org.eclipse.pass.object.model.Grant;
+import org.eclipse.pass.object.model.PassEntity;
+import org.eclipse.pass.object.model.Policy;
+import org.eclipse.pass.object.model.Repository;
+import org.eclipse.pass.object.model.Submission;
+import org.eclipse.pass.object.model.User;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adds triggers to the EntityDictionary which invalidate what the PolicyCache computed from an object once a
+ * change to it is committed.
+ */
+@Configuration
+public class PolicyCacheConfiguration {
+    /**
+     * @param dictionary the EntityDictionary the triggers are bound to
+     * @param policyCache the PolicyCache which is kept up to date
+     */
+    public PolicyCacheConfiguration(EntityDictionary dictionary, PolicyCache policyCache) {
+        LifeCycleHook<Submission> submission_hook = (op, phase, sub, scope, changes) -> {
+            policyCache.invalidateSubmission(sub.getId(), op == Operation.DELETE ? null : sub.getVersion());
+        };
+
+        LifeCycleHook<PassEntity> all_hook = (op, phase, entity, scope, changes) -> {
+            policyCache.invalidateAll();
+        };
+
+        LifeCycleHook<User> user_hook = (op, phase, user, scope, changes) -> {
+            if (user.getUsername() != null) {
+                policyCache.invalidateAffiliation(user.getUsername());
+            }
+        };
+
+        // The old user name of a renamed user may have become unique or lost its user
+        LifeCycleHook<User> username_hook = (op, phase, user, scope, changes) -> {
+            changes.map(ChangeSpec::getOriginal).filter(String.class::isInstance)
+                .ifPresent(username -> policyCache.invalidateAffiliation((String) username));
+        };
+
+        for (Operation op : List.of(Operation.UPDATE, Operation.DELETE)) {
+            dictionary.bindTrigger(Submission.class, op, TransactionPhase.POSTCOMMIT, submission_hook, false);
+            dictionary.bindTrigger(Grant.class, op, TransactionPhase.POSTCOMMIT, all_hook, false);
+            dictionary.bindTrigger(Funder.class, op, TransactionPhase.POSTCOMMIT, all_hook, false);
+            dictionary.bindTrigger(Repository.class, op, TransactionPhase.POSTCOMMIT, all_hook, false);
+            dictionary.bindTrigger(User.class, op, TransactionPhase.POSTCOMMIT, user_hook, false);
+        }
+
+        // A new policy may be the institutional policy
+        for (Operation op : List.of(Operation.CREATE, Operation.UPDATE, Operation.DELETE)) {
+            dictionary.bindTrigger(Policy.class, op, TransactionPhase.POSTCOMMIT, all_hook, false);
+        }
+
+        // A new user may be the unique user with a user name
+        dictionary.bindTrigger(User.class, Operation.CREATE, TransactionPhase.POSTCOMMIT, user_hook, false);
+        dictionary.bindTrigger(User.class, "username", Operation.UPDATE, TransactionPhase.POSTCOMMIT, username_hook);
+    }
+}
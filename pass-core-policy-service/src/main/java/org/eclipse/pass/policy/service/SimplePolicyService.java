@@ -19,6 +19,7 @@ package org.eclipse.pass.policy.service;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
 import com.yahoo.elide.RefreshableElide;
@@ -32,64 +33,52 @@ import org.eclipse.pass.object.model.Policy;
 import org.eclipse.pass.object.model.Repository;
 import org.eclipse.pass.object.model.Submission;
 import org.eclipse.pass.object.model.User;
+import org.springframework.stereotype.Service;
 
 /**
  * Simple implementation of the Policy Service interface. Provides Sets of policies or repositories
+ * <p>
+ * The policies computed from a submission, the affiliation of a user and the institutional policy are kept in a
+ * {@link PolicyCache}, so that repeated requests for a submission do not have to load it again.
  *
  * @author jrm
  */
+@Service
 public class SimplePolicyService implements PolicyService {
 
     private final RefreshableElide refreshableElide;
+    private final PolicyCache cache;
 
     /**
      * SimplePolicyService constructor
      * @param refreshableElide a RefreshableElide instance
+     * @param cache cache of computed policies
      */
-    public SimplePolicyService(RefreshableElide refreshableElide) {
+    public SimplePolicyService(RefreshableElide refreshableElide, PolicyCache cache) {
         this.refreshableElide = refreshableElide;
+        this.cache = cache;
     }
 
     @Override
     public Set<Policy> findPoliciesForSubmission(Long submissionId, Principal userPrincipal, String institution,
                                                  String institutionalPolicyTitle) throws IOException {
-        try (PassClient passClient = PassClient.newInstance(refreshableElide)) {
-            Submission submission = passClient.getObject(Submission.class, submissionId);
-
-            return findPoliciesForSubmission(passClient, submission, userPrincipal, institution,
-                    institutionalPolicyTitle);
-        }
+        return findPoliciesForSubmission(getSubmissionPolicies(submissionId), userPrincipal, institution,
+            institutionalPolicyTitle);
     }
 
-    private Set<Policy> findPoliciesForSubmission(PassClient passClient, Submission submission,
+    private Set<Policy> findPoliciesForSubmission(PolicyCache.SubmissionPolicies submissionPolicies,
             Principal userPrincipal, String institution, String institutionalPolicyTitle) throws IOException {
-        Set<Policy> policies = new HashSet<>(); //use Set to avoid duplicates
-
-        for (Grant grant : submission.getGrants()) {
-            for (Funder funder : getFunders(grant)) {
-                if (funder.getPolicy() != null) {
-                    policies.add(funder.getPolicy());
-                }
-            }
-        }
+        Set<Policy> policies = new HashSet<>(submissionPolicies.funderPolicies()); //use Set to avoid duplicates
 
         //If the user is an affiliate of the institution, add the institution's policy
-        String user_name = userPrincipal.getName();
-        PassClientSelector<User> userSelector = new PassClientSelector<>(User.class);
-        userSelector.setFilter(RSQL.equals("username", user_name));
-        PassClientResult<User> userResult = passClient.selectObjects(userSelector);
-
-        if (userResult.getObjects().size() == 1
-                && userResult.getObjects().get(0).getAffiliation().contains(institution)
-                && institutionalPolicyTitle != null) { //have a unique user in the system
-            PassClientSelector<Policy> policySelector = new PassClientSelector<>(Policy.class);
-            policySelector.setFilter(RSQL.equals("title", institutionalPolicyTitle));
-            PassClientResult<Policy> policyResult = passClient.selectObjects(policySelector);
-            if (policyResult.getObjects().size() == 1) {
-                policies.add(policyResult.getObjects().get(0));
-            }
+        if (institutionalPolicyTitle != null) {
+            Optional<Set<String>> affiliation = getAffiliation(userPrincipal.getName());
 
+            if (affiliation.isPresent() && affiliation.get().contains(institution)) { //have a unique user
+                getInstitutionalPolicy(institutionalPolicyTitle).ifPresent(policies::add);
+            }
         }
+
         return policies;
     }
 
@@ -97,23 +86,106 @@ public class SimplePolicyService implements PolicyService {
     public Set<Repository> findRepositoriesForSubmission(Long submissionId, Principal userPrincipal,
                                                          String institution, String institutionalPolicyTitle)
         throws IOException {
+        PolicyCache.SubmissionPolicies submissionPolicies = getSubmissionPolicies(submissionId);
+
+        // Set of policies is intersection of effective policies on submission and the computed policies
+
+        Set<Policy> policies = new HashSet<>(submissionPolicies.effectivePolicies());
+        policies.retainAll(findPoliciesForSubmission(submissionPolicies, userPrincipal, institution,
+                institutionalPolicyTitle));
+
+        Set<Repository> repositories = new HashSet<>();
+
+        policies.forEach(p -> {
+            repositories.addAll(p.getRepositories());
+        });
+
+        return repositories;
+    }
+
+    // Return the cached policies of the submission or compute them
+    private PolicyCache.SubmissionPolicies getSubmissionPolicies(Long submissionId) throws IOException {
+        PolicyCache.SubmissionPolicies result = cache.getSubmissionPolicies(submissionId);
+
+        if (result != null) {
+            return result;
+        }
+
+        long generation = cache.getGeneration();
+
         try (PassClient passClient = PassClient.newInstance(refreshableElide)) {
             Submission submission = passClient.getObject(Submission.class, submissionId);
+            Set<Policy> policies = new HashSet<>();
 
-            // Set of policies is intersection of effective policies on submission and the computed policies
+            for (Grant grant : submission.getGrants()) {
+                for (Funder funder : getFunders(grant)) {
+                    if (funder.getPolicy() != null) {
+                        policies.add(funder.getPolicy());
+                    }
+                }
+            }
 
-            Set<Policy> policies = new HashSet<>(submission.getEffectivePolicies());
-            policies.retainAll(findPoliciesForSubmission(passClient, submission, userPrincipal, institution,
-                    institutionalPolicyTitle));
+            result = new PolicyCache.SubmissionPolicies(submission.getVersion(), Set.copyOf(policies),
+                Set.copyOf(submission.getEffectivePolicies()));
+        }
 
-            Set<Repository> repositories = new HashSet<>();
+        cache.putSubmissionPolicies(submissionId, result, generation);
 
-            policies.forEach(p -> {
-                repositories.addAll(p.getRepositories());
-            });
+        return result;
+    }
 
-            return repositories;
+    // Return the affiliation of the user or empty if there is not a unique user
+    private Optional<Set<String>> getAffiliation(String user_name) throws IOException {
+        Optional<Set<String>> result = cache.getAffiliation(user_name);
+
+        if (result != null) {
+            return result;
         }
+
+        long generation = cache.getGeneration();
+        long userChanges = cache.getUserChanges();
+
+        try (PassClient passClient = PassClient.newInstance(refreshableElide)) {
+            PassClientSelector<User> userSelector = new PassClientSelector<>(User.class);
+            userSelector.setFilter(RSQL.equals("username", user_name));
+            userSelector.setFields(User.class, "affiliation");
+            userSelector.setLimit(2);
+            userSelector.setTotals(false);
+            PassClientResult<User> userResult = passClient.selectObjects(userSelector);
+
+            result = userResult.getObjects().size() == 1
+                ? Optional.of(Set.copyOf(userResult.getObjects().get(0).getAffiliation())) : Optional.empty();
+        }
+
+        cache.putAffiliation(user_name, result, generation, userChanges);
+
+        return result;
+    }
+
+    // Return the unique policy with the title
+    private Optional<Policy> getInstitutionalPolicy(String institutionalPolicyTitle) throws IOException {
+        Optional<Policy> result = cache.getInstitutionalPolicy(institutionalPolicyTitle);
+
+        if (result != null) {
+            return result;
+        }
+
+        long generation = cache.getGeneration();
+
+        try (PassClient passClient = PassClient.newInstance(refreshableElide)) {
+            PassClientSelector<Policy> policySelector = new PassClientSelector<>(Policy.class);
+            policySelector.setFilter(RSQL.equals("title", institutionalPolicyTitle));
+            policySelector.setLimit(2);
+            policySelector.setTotals(false);
+            PassClientResult<Policy> policyResult = passClient.selectObjects(policySelector);
+
+            result = policyResult.getObjects().size() == 1 ? Optional.of(policyResult.getObjects().get(0))
+                : Optional.empty();
+        }
+
+        cache.putInstitutionalPolicy(institutionalPolicyTitle, result, generation);
+
+        return result;
     }
 
     /**
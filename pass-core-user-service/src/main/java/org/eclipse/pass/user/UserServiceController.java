@@ -1,14 +1,26 @@
 package org.eclipse.pass.user;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.util.UUID;
 
+import com.yahoo.elide.Elide;
+import com.yahoo.elide.ElideResponse;
 import com.yahoo.elide.RefreshableElide;
+import com.yahoo.elide.core.dictionary.EntityDictionary;
+import com.yahoo.elide.core.request.route.Route;
+import com.yahoo.elide.core.type.ClassType;
+import com.yahoo.elide.jsonapi.JsonApi;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonReader;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import org.eclipse.pass.object.PassClient;
 import org.eclipse.pass.object.PassClientResult;
 import org.eclipse.pass.object.PassClientSelector;
@@ -20,18 +32,35 @@ import org.eclipse.pass.usertoken.Token;
 import org.eclipse.pass.usertoken.TokenFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * The user service reports information about the currently logged in user.
+ * <p>
+ * The answer is cached in the session of the user, so that repeated requests do not have to look up the user.
+ * The response carries an ETag and a conditional request with a matching If-None-Match is answered with 304.
  */
 @RestController
 public class UserServiceController {
     private static final Logger LOG = LoggerFactory.getLogger(UserServiceController.class);
 
+    /**
+     * Name of the session attribute caching the answer.
+     */
+    public static final String WHOAMI_SESSION_ATTRIBUTE = UserServiceController.class.getName() + ".whoami";
+
+    /**
+     * Value of the include parameter which embeds the user resource in the response.
+     */
+    public static final String INCLUDE_USER = "user";
+
     private final TokenFactory userTokenFactory;
     private final RefreshableElide refreshableElide;
 
@@ -48,14 +77,17 @@ public class UserServiceController {
 
     /**
      * Handles the request for retrieving information about the currently logged in user. The response is a JSON object
-     * with the following fields: id, type, and uri.
+     * with the following fields: id, type, and uri. If the include parameter is user, the response also has a user
+     * field with the JSON API resource of the user.
      *
      * @param request The HTTP request containing the user Principal.
      * @param response The HTTP response containing the JSON object with the following fields: id, type, and uri.
+     * @param include Set to user to embed the user resource
      * @throws IOException if an error occurs while writing the response.
      */
     @GetMapping("/user/whoami")
-    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response,
+                              @RequestParam(name = "include", required = false) String include) throws IOException {
         Principal principal = request.getUserPrincipal();
 
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -67,42 +99,122 @@ public class UserServiceController {
         }
 
         String user_name = principal.getName();
+        HttpSession session = request.getSession(false);
 
         try (PassClient client = PassClient.newInstance(refreshableElide)) {
-            PassClientSelector<User> selector = new PassClientSelector<>(User.class);
-            selector.setFilter(RSQL.equals("username", user_name));
-
-            PassClientResult<User> result = client.selectObjects(selector);
+            Token user_token = get_user_token(request.getQueryString());
+            WhoAmI whoami = null;
 
-            if (result.getObjects().isEmpty()) {
-                set_error_response(response, "No user matching principal: " + user_name,
-                        HttpStatus.INTERNAL_SERVER_ERROR);
-                return;
+            // A user token must always be enacted
+            if (session != null && user_token == null
+                    && session.getAttribute(WHOAMI_SESSION_ATTRIBUTE) instanceof WhoAmI cached
+                    && cached.username().equals(user_name)) {
+                whoami = cached;
             }
 
-            if (result.getObjects().size() > 1) {
-                set_error_response(response, "Multiple users matching principal: " + user_name,
-                        HttpStatus.INTERNAL_SERVER_ERROR);
-                return;
+            JsonObject user_resource = null;
+
+            if (whoami != null && INCLUDE_USER.equals(include)) {
+                user_resource = get_user_resource(principal, whoami.id());
+
+                // The user was removed during the session
+                if (user_resource == null) {
+                    whoami = null;
+                }
             }
 
-            User user = result.getObjects().get(0);
-            Token user_token = get_user_token(request.getQueryString());
+            if (whoami == null) {
+                User user = find_user(client, user_name, response);
+
+                if (user == null) {
+                    return;
+                }
 
-            if (user_token != null) {
-                enact_user_token(user, user_token, client);
+                if (user_token != null) {
+                    enact_user_token(user, user_token, client);
+                }
+
+                whoami = new WhoAmI(user_name, user.getId(), PassClient.getUrl(refreshableElide, user));
+
+                if (session != null) {
+                    session.setAttribute(WHOAMI_SESSION_ATTRIBUTE, whoami);
+                }
             }
 
-            String url = PassClient.getUrl(refreshableElide, user);
-            JsonObject obj = Json.createObjectBuilder().add("id", user.getId().toString()).add("type", "user")
-                    .add("uri", url).build();
+            JsonObjectBuilder obj = Json.createObjectBuilder().add("id", whoami.id().toString()).add("type", "user")
+                    .add("uri", whoami.uri());
+
+            if (INCLUDE_USER.equals(include)) {
+                if (user_resource == null) {
+                    user_resource = get_user_resource(principal, whoami.id());
+                }
+
+                if (user_resource == null) {
+                    set_error_response(response, "No user matching principal: " + user_name,
+                            HttpStatus.INTERNAL_SERVER_ERROR);
+                    return;
+                }
+
+                obj.add("user", user_resource);
+            }
 
-            set_response(response, obj, HttpStatus.OK);
+            set_tagged_response(request, response, obj.build());
         } catch (BadTokenException e) {
             set_error_response(response, "Bad user token: " + request.getQueryString(), HttpStatus.BAD_REQUEST);
         }
     }
 
+    // Return the user with the user name or set an error response and return null
+    private User find_user(PassClient client, String user_name, HttpServletResponse response) throws IOException {
+        PassClientSelector<User> selector = new PassClientSelector<>(User.class);
+        selector.setFilter(RSQL.equals("username", user_name));
+        selector.setLimit(2);
+        selector.setTotals(false);
+
+        PassClientResult<User> result = client.selectObjects(selector);
+
+        if (result.getObjects().isEmpty()) {
+            set_error_response(response, "No user matching principal: " + user_name,
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+            return null;
+        }
+
+        if (result.getObjects().size() > 1) {
+            set_error_response(response, "Multiple users matching principal: " + user_name,
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+            return null;
+        }
+
+        return result.getObjects().get(0);
+    }
+
+    // The user as a JSON API resource rendered by Elide or null if the user does not exist
+    private JsonObject get_user_resource(Principal principal, Long id) throws IOException {
+        Elide elide = refreshableElide.getElide();
+        EntityDictionary dictionary = elide.getElideSettings().getEntityDictionary();
+
+        Route route = Route.builder()
+                .baseUrl(elide.getElideSettings().getBaseUrl())
+                .path("/" + EntityDictionary.getEntityName(ClassType.of(User.class)) + "/" + id)
+                .apiVersion(dictionary.getApiVersions().iterator().next())
+                .build();
+
+        ElideResponse<String> result = new JsonApi(elide).get(route,
+                new com.yahoo.elide.core.security.User(principal), UUID.randomUUID());
+
+        if (result.getStatus() == HttpStatus.NOT_FOUND.value()) {
+            return null;
+        }
+
+        if (result.getStatus() != HttpStatus.OK.value()) {
+            throw new IOException("Failed to get user: " + result.getStatus() + " " + result.getBody());
+        }
+
+        try (JsonReader reader = Json.createReader(new StringReader(result.getBody()))) {
+            return reader.readObject().getJsonObject("data");
+        }
+    }
+
     private Token get_user_token(String query) throws BadTokenException {
         if (userTokenFactory.hasToken(query)) {
             return userTokenFactory.fromUri(query);
@@ -149,6 +261,23 @@ public class UserServiceController {
         }
     }
 
+    // Set a response with an ETag unless it matches the If-None-Match of the request
+    private void set_tagged_response(HttpServletRequest request, HttpServletResponse response, JsonObject obj)
+            throws IOException {
+        String body = obj.toString();
+        String etag = "\"0" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        // The answer depends on the session so it must be revalidated
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        response.getWriter().print(body);
+        response.setStatus(HttpStatus.OK.value());
+    }
+
     private void set_response(HttpServletResponse response, JsonObject obj, HttpStatus status) throws IOException {
         response.getWriter().print(obj.toString());
         response.setStatus(status.value());
@@ -161,4 +290,8 @@ public class UserServiceController {
         set_response(response, obj, status);
         LOG.error(message);
     }
+
+    // Answer cached in the session
+    private record WhoAmI(String username, Long id, String uri) implements Serializable {
+    }
 }